@@ -0,0 +1,159 @@
+package org.itmo.isLab1.artists.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.itmo.isLab1.artists.entity.MediaBlob;
+import org.itmo.isLab1.artists.repository.MediaBlobRepository;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.itmo.isLab1.common.storage.ObjectStorage;
+import org.itmo.isLab1.config.ExecutorConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Время ответа на загрузку нескольких файлов в {@link MediaBlobService#store}.
+ * Хранилище заменено заглушкой, которая читает содержимое и ждет заданную задержку сети,
+ * БД заменена заглушками без задержки. Пул из одного потока соответствует прежней
+ * последовательной загрузке, пул по умолчанию - параллельной.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class MediaUploadBenchmark {
+
+    @Param({"1", "8"})
+    private int threads;
+
+    @Param({"10"})
+    private int files;
+
+    @Param({"1048576"})
+    private int fileSize;
+
+    @Param({"20"})
+    private long storageLatencyMillis;
+
+    private ThreadPoolTaskExecutor executor;
+    private MediaBlobService mediaBlobService;
+    private MultipartFile[] request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = new ExecutorConfiguration().mediaUploadExecutor(threads, 100);
+
+        ObjectStorage storage = stub(ObjectStorage.class, Map.of("put", args -> {
+            try (InputStream content = (InputStream) args[1]) {
+                content.transferTo(OutputStream.nullOutputStream());
+                Thread.sleep(storageLatencyMillis);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        MediaBlobRepository repository = stub(MediaBlobRepository.class, Map.of(
+            "register", args -> Boolean.FALSE,
+            "markStored", args -> 1
+        ));
+
+        mediaBlobService = new MediaBlobService(
+            repository,
+            null,
+            new MinioService(storage, new SimpleMeterRegistry()),
+            new TransactionTemplate(new NoopTransactionManager()),
+            executor
+        );
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareRequest() {
+        request = new MultipartFile[files];
+        for (int i = 0; i < files; i++) {
+            byte[] content = new byte[fileSize];
+            ThreadLocalRandom.current().nextBytes(content);
+            request[i] = multipartFile(content);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public List<MediaBlob> store() {
+        return mediaBlobService.store(request);
+    }
+
+    private static MultipartFile multipartFile(byte[] content) {
+        return stub(MultipartFile.class, Map.of(
+            "getInputStream", args -> new ByteArrayInputStream(content),
+            "getBytes", args -> content,
+            "getSize", args -> (long) content.length,
+            "getContentType", args -> "image/png",
+            "isEmpty", args -> content.length == 0
+        ));
+    }
+
+    /**
+     * Заглушка интерфейса: перечисленные методы вычисляются функциями, остальные не поддерживаются
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> body = methods.get(method.getName());
+            if (body == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return body.apply(args);
+        });
+    }
+
+    private static final class NoopTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.itmo.isLab1.auth;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Стоимость аутентификации одного запроса по JWT:
+ * прежняя схема с отдельным разбором токена на каждое поле, однократный разбор
+ * и повторный запрос с тем же токеном через {@link JwtTokenCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "zxcnksalidKASJADi12312934329849323322343rnewYEWEHWW";
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+
+        jwtService = new JwtService(new JwtTokenCache(10_000));
+        setField(jwtService, "jwtSigningKey", SECRET);
+        setField(jwtService, "jwtExpirationTime", String.valueOf(TimeUnit.DAYS.toMillis(1)));
+        jwtService.init();
+
+        token = Jwts.builder()
+            .claims(Map.of("id", 1L, "role", "ROLE_ARTIST"))
+            .subject("artist@mail.ru")
+            .issuedAt(new Date())
+            .expiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+            .signWith(signingKey, Jwts.SIG.HS256)
+            .compact();
+    }
+
+    /**
+     * Прежний фильтр: имя, id, роль, затем имя и срок действия при проверке, каждый раз с новым ключом и парсером
+     */
+    @Benchmark
+    public void parsePerClaim(Blackhole bh) {
+        bh.consume(parseWithNewParser().getSubject());
+        bh.consume(parseWithNewParser().get("id"));
+        bh.consume(parseWithNewParser().get("role"));
+        bh.consume(parseWithNewParser().getSubject());
+        bh.consume(parseWithNewParser().getExpiration());
+    }
+
+    /**
+     * Один разбор готовым парсером, как при промахе кеша
+     */
+    @Benchmark
+    public Claims parseOnce() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Повторный запрос с уже проверенным токеном
+     */
+    @Benchmark
+    public JwtPrincipal parseCached() {
+        return jwtService.parseToken(token);
+    }
+
+    private Claims parseWithNewParser() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,98 @@
+package org.itmo.isLab1.common.storage.local;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Загрузка и чтение объектов локального хранилища без внешнего сервера:
+ * запись объекта, чтение целиком, чтение диапазона при перемотке видео и проверка подписанной ссылки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocalObjectStorageBenchmark {
+
+    private static final String OBJECT = "works/1/video.mp4";
+
+    @Param({"1048576", "16777216"})
+    private int objectSize;
+
+    @Param({"65536"})
+    private int rangeSize;
+
+    private Path root;
+    private LocalObjectStorage storage;
+    private byte[] content;
+    private long expires;
+    private String signature;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("storage-bench");
+        storage = new LocalObjectStorage(root.toString(), "http://localhost", "benchmark-key");
+
+        content = new byte[objectSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        storage.put(OBJECT, new ByteArrayInputStream(content), content.length, "video/mp4");
+
+        UriComponents url = UriComponentsBuilder.fromUri(URI.create(storage.presignGet(OBJECT, Duration.ofHours(1)))).build();
+        expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        signature = url.getQueryParams().getFirst("signature");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void put() {
+        storage.put("uploads/object", new ByteArrayInputStream(content), content.length, "video/mp4");
+    }
+
+    @Benchmark
+    public long readWhole() throws IOException {
+        try (InputStream in = storage.get(OBJECT)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Перемотка: один диапазон из середины объекта
+     */
+    @Benchmark
+    public long readRange() throws IOException {
+        try (InputStream in = storage.get(OBJECT, objectSize / 2, rangeSize)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public boolean verifySignedUrl() {
+        return storage.verify("GET", OBJECT, expires, signature);
+    }
+}
@@ -0,0 +1,174 @@
+package org.itmo.isLab1.programs.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
+import org.itmo.isLab1.programs.entity.Program;
+import org.itmo.isLab1.programs.mapper.ProgramMapper;
+import org.itmo.isLab1.programs.mapper.ProgramMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Первая страница каталога программ из PostgreSQL: прежний запрос сущностей со всеми столбцами
+ * и преобразование мапером против {@link ProgramRepository#findPublishedPreviews}.
+ * Поднимается только DataSource, Flyway и JPA с настройками из application.properties,
+ * БД по умолчанию - из docker-compose, другую можно задать свойством spring.datasource.url.
+ * Программы резиденции бенчмарка создаются при запуске и удаляются по окончании.
+ * Запускается задачей jmh: в jmhJar файлы spring.factories зависимостей не объединяются и Spring Boot из него не стартует.
+ * Экономию памяти показывает профилировщик gc (alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProgramListBenchmark {
+
+    private static final String BENCHMARK_EMAIL = "program-list-benchmark@example.com";
+
+    @Param({"1000"})
+    private int programs;
+
+    @Param({"20"})
+    private int pageSize;
+
+    @Param({"2000"})
+    private int descriptionLength;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private EntityManager entityManager;
+    private ProgramRepository programRepository;
+    private final ProgramMapper mapper = new ProgramMapperImpl();
+    private Pageable pageable;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("org.itmo.isLab1")
+    @EnableJpaRepositories(basePackageClasses = ProgramRepository.class)
+    static class BenchmarkConfiguration {
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .properties("spring.jpa.show-sql=false")
+            .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        entityManager = context.getBean(EntityManager.class);
+        programRepository = context.getBean(ProgramRepository.class);
+        pageable = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        deleteBenchmarkData();
+        Long userId = jdbcTemplate.queryForObject("""
+            insert into art2art_users (email, name, surname, password_hash, role)
+            values (?, 'Benchmark', 'Benchmark', '-', 'ROLE_RESIDENCE_ADMIN')
+            returning id
+            """, Long.class, BENCHMARK_EMAIL);
+        Long residenceId = jdbcTemplate.queryForObject("""
+            insert into art2art_residence_details (user_id, title, is_published, validation_status)
+            values (?, 'Резиденция бенчмарка', true, 'APPROVED')
+            returning id
+            """, Long.class, userId);
+        // Описание и JSONB поля по размеру как у заполненной карточки программы
+        jdbcTemplate.update("""
+            insert into art2art_programs (
+                residence_id, title, description, goals, conditions,
+                deadline_apply, deadline_review, deadline_notify,
+                duration_days, budget_quota, people_quota, is_published, created_at
+            )
+            select ?,
+                   'Программа резиденции номер ' || g,
+                   left(repeat('Описание программы резиденции. ', ? / 30 + 1), ?),
+                   jsonb_build_object('format', 'online', 'focus', 'painting', 'level', g % 5, 'tags', jsonb_build_array('art', 'residency')),
+                   jsonb_build_object('paid', false, 'housing', true, 'country', 'RU', 'languages', jsonb_build_array('ru', 'en')),
+                   current_date + 30 + g % 60,
+                   current_date + 60 + g % 60,
+                   current_date + 90 + g % 60,
+                   30, 100000, 10, true,
+                   now() - g * interval '1 minute'
+            from generate_series(1, ?) g
+            """, residenceId, descriptionLength, descriptionLength, programs);
+        jdbcTemplate.execute("analyze art2art_programs");
+    }
+
+    @TearDown
+    public void tearDown() {
+        deleteBenchmarkData();
+        context.close();
+    }
+
+    /**
+     * Прежний путь: страница сущностей со всеми столбцами и счетчик, затем ProgramMapper.toPreviewDto
+     */
+    @Benchmark
+    public Page<ProgramPreviewDto> entityPage() {
+        return readOnlyTransaction.execute(status -> {
+            LocalDate today = LocalDate.now();
+            List<Program> content = entityManager.createQuery("""
+                    select p from Program p
+                    where p.isPublished = true and p.deadlineApply >= :date
+                    order by p.createdAt desc
+                    """, Program.class)
+                .setParameter("date", today)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+            long total = entityManager.createQuery("""
+                    select count(p) from Program p
+                    where p.isPublished = true and p.deadlineApply >= :date
+                    """, Long.class)
+                .setParameter("date", today)
+                .getSingleResult();
+            return new PageImpl<>(content, pageable, total).map(mapper::toPreviewDto);
+        });
+    }
+
+    /**
+     * Проекция: только столбцы карточки через конструктор DTO в запросе
+     */
+    @Benchmark
+    public Page<ProgramPreviewDto> projectionPage() {
+        return readOnlyTransaction.execute(status ->
+            programRepository.findPublishedPreviews(LocalDate.now(), pageable)
+        );
+    }
+
+    private void deleteBenchmarkData() {
+        // Программы удаляются каскадно вместе с резиденцией
+        jdbcTemplate.update("""
+            delete from art2art_residence_details
+            where user_id in (select id from art2art_users where email = ?)
+            """, BENCHMARK_EMAIL);
+        jdbcTemplate.update("delete from art2art_users where email = ?", BENCHMARK_EMAIL);
+    }
+}
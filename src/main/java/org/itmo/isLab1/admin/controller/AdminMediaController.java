@@ -0,0 +1,51 @@
+package org.itmo.isLab1.admin.controller;
+
+import lombok.RequiredArgsConstructor;
+
+import org.itmo.isLab1.artists.dto.MediaDerivativesBackfillDto;
+import org.itmo.isLab1.artists.dto.StorageReconcileReportDto;
+import org.itmo.isLab1.artists.service.MediaDerivativeService;
+import org.itmo.isLab1.artists.service.MediaStorageReconciler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST-контроллер для обслуживания медиафайлов суперадмином
+ */
+@RestController
+@RequestMapping("/api/admin/media")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('SUPERADMIN')")
+public class AdminMediaController {
+
+    private final MediaDerivativeService mediaDerivativeService;
+    private final MediaStorageReconciler mediaStorageReconciler;
+
+    /**
+     * Постановка в очередь на построение уменьшенных копий всех изображений без копий.
+     * Копии строятся в фоне порциями по мере освобождения пула обработки.
+     *
+     * @return количество поставленных в очередь изображений со статусом 202 Accepted
+     */
+    @PostMapping("/derivatives/backfill")
+    public ResponseEntity<MediaDerivativesBackfillDto> backfillDerivatives() {
+        int scheduled = mediaDerivativeService.backfill();
+        return ResponseEntity.accepted().body(new MediaDerivativesBackfillDto(scheduled));
+    }
+
+    /**
+     * Сверка хранилища с медиафайлами. По умолчанию объекты без ссылок только перечисляются;
+     * полная сверка бакета выполняется по расписанию, здесь удобно проверять отдельный префикс.
+     *
+     * @param prefix префикс проверяемых путей, например artist-12/
+     * @param dryRun только найти объекты без ссылок, не удаляя их
+     * @return отчет о сверке
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<StorageReconcileReportDto> reconcileStorage(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity.ok(mediaStorageReconciler.reconcile(prefix, dryRun));
+    }
+}
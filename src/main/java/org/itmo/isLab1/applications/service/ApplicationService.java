@@ -44,22 +44,16 @@ public class ApplicationService {
     }
 
     public void confirmMyApplication(Long applicationId) {
-        User currentUser = userService.getCurrentUser();
-
-        applicationRepository.confirmApplication(applicationId, currentUser.getId());
+        applicationRepository.confirmApplication(applicationId, userService.getCurrentUserId());
     }
 
     public void declineMyApplication(Long applicationId) {
-        User currentUser = userService.getCurrentUser();
-
-        applicationRepository.declineApplication(applicationId, currentUser.getId());
+        applicationRepository.declineApplication(applicationId, userService.getCurrentUserId());
     }
 
     public Long createApplication(Long programId, ApplicationCreateDto applicationDto) {
-        User currentUser = userService.getCurrentUser();
-
         return applicationRepository.createApplication(
-            currentUser.getId(), 
+            userService.getCurrentUserId(), 
             programId,
             applicationDto.getMotivation()
         );
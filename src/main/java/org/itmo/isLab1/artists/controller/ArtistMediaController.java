@@ -1,7 +1,15 @@
 package org.itmo.isLab1.artists.controller;
 
 import lombok.RequiredArgsConstructor;
+import jakarta.validation.Valid;
 import org.itmo.isLab1.artists.dto.MediaDto;
+import org.itmo.isLab1.artists.dto.MediaUploadCompleteDto;
+import org.itmo.isLab1.artists.dto.MediaUploadFileDto;
+import org.itmo.isLab1.artists.dto.MediaUploadRequestDto;
+import org.itmo.isLab1.artists.dto.MediaUploadTicketDto;
+import org.itmo.isLab1.artists.dto.MultipartPartDto;
+import org.itmo.isLab1.artists.dto.MultipartPartUrlDto;
+import org.itmo.isLab1.artists.dto.MultipartUploadDto;
 import org.itmo.isLab1.artists.service.ArtistMediaService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +23,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -87,6 +96,132 @@ public class ArtistMediaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(uploadedMedia);
     }
 
+    /**
+     * Получение разрешений на загрузку медиафайлов напрямую в хранилище
+     *
+     * @param workId  ID работы
+     * @param request описание загружаемых файлов
+     * @return список разрешений с presigned URL для PUT
+     */
+    @PostMapping("/me/works/{workId}/media/uploads")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<List<MediaUploadTicketDto>> createUploadTickets(
+            @PathVariable Long workId,
+            @Valid @RequestBody MediaUploadRequestDto request) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+        List<MediaUploadTicketDto> tickets = artistWorkService.createUploadTickets(currentArtistId, workId, request);
+
+        return ResponseEntity.ok(tickets);
+    }
+
+    /**
+     * Подтверждение загрузки медиафайлов напрямую в хранилище
+     *
+     * @param workId  ID работы
+     * @param request пути загруженных объектов
+     * @return список DTO зарегистрированных медиафайлов со статусом 201 Created
+     */
+    @PostMapping("/me/works/{workId}/media/uploads/complete")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<List<MediaDto>> completeDirectUploads(
+            @PathVariable Long workId,
+            @Valid @RequestBody MediaUploadCompleteDto request) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+        List<MediaDto> uploadedMedia = artistWorkService.completeDirectUploads(currentArtistId, workId, request);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadedMedia);
+    }
+
+    /**
+     * Начало загрузки видео по частям
+     *
+     * @param workId ID работы
+     * @param file   описание загружаемого файла
+     * @return параметры загрузки со статусом 201 Created
+     */
+    @PostMapping("/me/works/{workId}/media/multipart")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<MultipartUploadDto> initiateMultipartUpload(
+            @PathVariable Long workId,
+            @Valid @RequestBody MediaUploadFileDto file) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+        MultipartUploadDto upload = artistWorkService.initiateMultipartUpload(currentArtistId, workId, file);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(upload);
+    }
+
+    /**
+     * Получение URL для загрузки части файла
+     *
+     * @param workId     ID работы
+     * @param uploadId   ID загрузки
+     * @param partNumber номер части
+     * @return presigned URL для PUT
+     */
+    @PostMapping("/me/works/{workId}/media/multipart/{uploadId}/parts/{partNumber}")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<MultipartPartUrlDto> getPartUploadUrl(
+            @PathVariable Long workId,
+            @PathVariable Long uploadId,
+            @PathVariable int partNumber) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+
+        return ResponseEntity.ok(artistWorkService.getPartUploadUrl(currentArtistId, workId, uploadId, partNumber));
+    }
+
+    /**
+     * Получение списка загруженных частей для продолжения прерванной загрузки
+     *
+     * @param workId   ID работы
+     * @param uploadId ID загрузки
+     * @return загруженные части по возрастанию номера
+     */
+    @GetMapping("/me/works/{workId}/media/multipart/{uploadId}/parts")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<List<MultipartPartDto>> listUploadedParts(
+            @PathVariable Long workId,
+            @PathVariable Long uploadId) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+
+        return ResponseEntity.ok(artistWorkService.listUploadedParts(currentArtistId, workId, uploadId));
+    }
+
+    /**
+     * Завершение загрузки по частям
+     *
+     * @param workId   ID работы
+     * @param uploadId ID загрузки
+     * @return DTO зарегистрированного медиафайла со статусом 201 Created
+     */
+    @PostMapping("/me/works/{workId}/media/multipart/{uploadId}/complete")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<MediaDto> completeMultipartUpload(
+            @PathVariable Long workId,
+            @PathVariable Long uploadId) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+        MediaDto media = artistWorkService.completeMultipartUpload(currentArtistId, workId, uploadId);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(media);
+    }
+
+    /**
+     * Отмена загрузки по частям
+     *
+     * @param workId   ID работы
+     * @param uploadId ID загрузки
+     * @return ответ со статусом 204 No Content
+     */
+    @DeleteMapping("/me/works/{workId}/media/multipart/{uploadId}")
+    @PreAuthorize("hasRole('ARTIST')")
+    public ResponseEntity<Void> abortMultipartUpload(
+            @PathVariable Long workId,
+            @PathVariable Long uploadId) {
+        Long currentArtistId = artistWorkService.getCurrentArtistIdForController();
+        artistWorkService.abortMultipartUpload(currentArtistId, workId, uploadId);
+
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Удаление медиафайла
      *
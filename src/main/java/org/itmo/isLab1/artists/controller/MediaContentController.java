@@ -0,0 +1,135 @@
+package org.itmo.isLab1.artists.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import org.itmo.isLab1.artists.service.MediaContentService;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.itmo.isLab1.common.utils.http.ETags;
+import org.itmo.isLab1.common.utils.http.HttpRanges;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * REST-контроллер для потоковой отдачи содержимого медиафайлов через приложение.
+ * Поддерживает Range, поэтому перемотка видео стоит одного ранжированного чтения из хранилища.
+ * <p>
+ * Количество одновременных потоков ограничено пулом буферов: каждый поток получает
+ * буфер фиксированного размера и возвращает его по завершении, содержимое целиком в память не читается.
+ * Запросы сверх лимита получают 503 с заголовком Retry-After.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/media")
+public class MediaContentController {
+
+    private final MediaContentService mediaContentService;
+    private final BlockingQueue<byte[]> buffers;
+    private final String cacheControl;
+
+    public MediaContentController(
+        MediaContentService mediaContentService,
+        @Value("${app.media.stream.max-concurrent:64}") int maxConcurrent,
+        @Value("${app.media.stream.buffer-size:65536}") int bufferSize,
+        @Value("${app.media.stream.cache-max-age:1h}") Duration cacheMaxAge
+    ) {
+        this.mediaContentService = mediaContentService;
+        this.buffers = new ArrayBlockingQueue<>(maxConcurrent);
+        for (int i = 0; i < maxConcurrent; i++) {
+            buffers.add(new byte[bufferSize]);
+        }
+        this.cacheControl = "public, max-age=" + cacheMaxAge.toSeconds();
+    }
+
+    /**
+     * Отдача содержимого медиафайла с поддержкой Range, If-Range и If-None-Match
+     *
+     * @param id ID медиафайла
+     */
+    @GetMapping("/{id}/content")
+    public void getContent(
+            @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        StoredObject content = mediaContentService.getContent(id);
+        String etag = ETags.strong(content.etag());
+        long size = content.size();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (content.lastModified() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, content.lastModified().toInstant().toEpochMilli());
+        }
+
+        if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+        HttpRange range = HttpRanges.requested(request, etag);
+        if (range != null) {
+            try {
+                start = HttpRanges.start(range, size);
+                length = range.getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, HttpRanges.unsatisfiable(size));
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        try (InputStream in = mediaContentService.openRange(content, start, length)) {
+            if (range != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, HttpRanges.contentRange(start, length, size));
+            }
+            response.setContentType(content.contentType() != null ? content.contentType() : "application/octet-stream");
+            response.setContentLengthLong(length);
+            copy(in, response.getOutputStream(), buffer, length);
+        } finally {
+            buffers.add(buffer);
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, byte[] buffer, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                break;
+            }
+            try {
+                out.write(buffer, 0, read);
+            } catch (IOException e) {
+                // Клиент закрыл соединение, например при перемотке видео
+                log.debug("Отдача медиафайла прервана клиентом: {}", e.getMessage());
+                return;
+            }
+            remaining -= read;
+        }
+        out.flush();
+    }
+}
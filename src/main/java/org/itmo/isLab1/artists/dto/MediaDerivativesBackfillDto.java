@@ -0,0 +1,17 @@
+package org.itmo.isLab1.artists.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат постановки изображений в очередь на построение копий
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaDerivativesBackfillDto {
+    private Integer scheduled;
+}
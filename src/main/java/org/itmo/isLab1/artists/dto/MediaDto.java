@@ -18,4 +18,8 @@ public class MediaDto {
 
     @JsonProperty("fileSize")
     Long fileSize;
+
+    /** Ссылка на уменьшенную копию изображения, null пока копия не построена */
+    @JsonProperty("thumbnailUri")
+    String thumbnailUri;
 }
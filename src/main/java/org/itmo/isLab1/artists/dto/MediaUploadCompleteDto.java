@@ -0,0 +1,20 @@
+package org.itmo.isLab1.artists.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadCompleteDto {
+
+    @NotEmpty(message = "Необходимо указать загруженные файлы")
+    private List<@NotBlank String> objectNames;
+}
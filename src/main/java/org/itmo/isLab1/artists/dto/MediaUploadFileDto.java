@@ -0,0 +1,28 @@
+package org.itmo.isLab1.artists.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadFileDto {
+
+    @NotBlank(message = "Имя файла не может быть пустым")
+    @Size(max = 255, message = "Имя файла должно содержать максимум 255 символов")
+    private String fileName;
+
+    @NotBlank(message = "Тип файла обязателен")
+    private String contentType;
+
+    @NotNull(message = "Размер файла обязателен")
+    @Positive(message = "Размер файла должен быть положительным")
+    private Long size;
+}
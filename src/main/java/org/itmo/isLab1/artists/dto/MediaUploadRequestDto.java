@@ -0,0 +1,20 @@
+package org.itmo.isLab1.artists.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadRequestDto {
+
+    @NotEmpty(message = "Необходимо указать файлы для загрузки")
+    private List<@Valid MediaUploadFileDto> files;
+}
@@ -0,0 +1,26 @@
+package org.itmo.isLab1.artists.dto;
+
+import java.time.ZonedDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Разрешение на загрузку одного файла напрямую в хранилище.
+ * Клиент выполняет PUT по uploadUrl с заголовком Content-Type, равным contentType,
+ * после чего передает objectName в запрос завершения загрузки.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadTicketDto {
+    private String fileName;
+    private String objectName;
+    private String uploadUrl;
+    private String contentType;
+    private Long maxSize;
+    private ZonedDateTime expiresAt;
+}
@@ -0,0 +1,19 @@
+package org.itmo.isLab1.artists.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Часть файла, уже загруженная в хранилище
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartPartDto {
+    private Integer partNumber;
+    private Long size;
+    private String etag;
+}
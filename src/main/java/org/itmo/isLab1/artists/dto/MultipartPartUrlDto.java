@@ -0,0 +1,21 @@
+package org.itmo.isLab1.artists.dto;
+
+import java.time.ZonedDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Разрешение на загрузку одной части файла: клиент выполняет PUT с телом части по uploadUrl
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartPartUrlDto {
+    private Integer partNumber;
+    private String uploadUrl;
+    private ZonedDateTime expiresAt;
+}
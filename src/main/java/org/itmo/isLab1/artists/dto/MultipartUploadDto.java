@@ -0,0 +1,26 @@
+package org.itmo.isLab1.artists.dto;
+
+import java.time.ZonedDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Начатая multipart загрузка медиафайла.
+ * Клиент делит файл на partsCount частей по partSize байт (последняя может быть короче),
+ * загружает их в любом порядке и при обрыве продолжает с частей, которых нет в списке загруженных.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartUploadDto {
+    private Long id;
+    private String contentType;
+    private Long fileSize;
+    private Long partSize;
+    private Integer partsCount;
+    private ZonedDateTime expiresAt;
+}
@@ -0,0 +1,35 @@
+package org.itmo.isLab1.artists.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат сверки хранилища с медиафайлами
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageReconcileReportDto {
+    /** Объекты только найдены, но не удалены */
+    private Boolean dryRun;
+
+    private Long scanned;
+
+    /** Объекты моложе задержки: могут принадлежать еще не завершенной загрузке */
+    private Long skippedRecent;
+
+    /** Объекты с путем неизвестного формата, не проверяются */
+    private Long unrecognized;
+
+    private Long orphans;
+    private Long removed;
+    private Long failed;
+
+    /** Первые найденные объекты без ссылок */
+    private List<String> orphanSample;
+}
@@ -0,0 +1,7 @@
+package org.itmo.isLab1.artists.entity;
+
+public enum DerivativesStatusEnum {
+    PENDING,
+    READY,
+    FAILED
+}
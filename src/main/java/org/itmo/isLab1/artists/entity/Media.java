@@ -7,11 +7,14 @@ import lombok.*;
 import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcType;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.dialect.PostgreSQLEnumJdbcType;
+import org.hibernate.type.SqlTypes;
 import org.itmo.isLab1.common.entity.BaseEntity;
 import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeConverter;
 
 import java.time.ZonedDateTime;
+import java.util.Map;
 
 @Data
 @Entity
@@ -45,8 +48,32 @@ public class Media implements BaseEntity {
     @Column(name = "file_size")
     private Long fileSize;
 
+    /** SHA-256 содержимого, если объект хранится в общем хранилище по хешу */
+    @JdbcTypeCode(SqlTypes.CHAR)
+    @Column(name = "blob_hash", length = 64)
+    private String blobHash;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     @Convert(converter = ZonedDateTimeConverter.class)
     private ZonedDateTime createdAt;
+
+    /** Уменьшенные копии изображения: ширина в пикселях -> путь объекта в MinIO */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "derivatives", columnDefinition = "jsonb")
+    private Map<String, String> derivatives;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    @Column(name = "derivatives_status")
+    @ColumnTransformer(write = "?::art2art_media_derivatives_status_enum")
+    private DerivativesStatusEnum derivativesStatus;
+
+    @Builder.Default
+    @Column(name = "derivatives_attempts", nullable = false)
+    private Integer derivativesAttempts = 0;
+
+    @Column(name = "derivatives_next_attempt_at")
+    @Convert(converter = ZonedDateTimeConverter.class)
+    private ZonedDateTime derivativesNextAttemptAt;
 }
\ No newline at end of file
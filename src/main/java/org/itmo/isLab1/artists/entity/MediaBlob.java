@@ -0,0 +1,51 @@
+package org.itmo.isLab1.artists.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeConverter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Объект в MinIO, общий для медиафайлов с одинаковым содержимым.
+ * Счетчик ссылок поддерживается триггерами на art2art_media.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "art2art_media_blobs")
+public class MediaBlob {
+
+    /** SHA-256 содержимого в шестнадцатеричном виде */
+    @Id
+    @JdbcTypeCode(SqlTypes.CHAR)
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "object_name", nullable = false, unique = true, columnDefinition = "TEXT")
+    private String objectName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false, insertable = false, updatable = false)
+    private Integer refCount;
+
+    @Column(name = "stored", nullable = false)
+    private Boolean stored;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    @Convert(converter = ZonedDateTimeConverter.class)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "released_at", insertable = false, updatable = false)
+    @Convert(converter = ZonedDateTimeConverter.class)
+    private ZonedDateTime releasedAt;
+}
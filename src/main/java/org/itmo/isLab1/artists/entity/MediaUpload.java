@@ -0,0 +1,69 @@
+package org.itmo.isLab1.artists.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.itmo.isLab1.common.entity.BaseEntity;
+import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeConverter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Незавершенная multipart загрузка медиафайла.
+ * Загруженные части отслеживает само хранилище, запись хранит заявленные параметры файла.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "art2art_media_uploads")
+public class MediaUpload implements BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "art2art_media_uploads_id_seq")
+    @SequenceGenerator(name = "art2art_media_uploads_id_seq", sequenceName = "art2art_media_uploads_id_seq", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "work_id", nullable = false)
+    @NotNull(message = "Work is required")
+    @ToString.Exclude
+    private Work work;
+
+    @Column(name = "upload_id", nullable = false, columnDefinition = "TEXT")
+    @NotBlank(message = "Upload ID is required")
+    private String uploadId;
+
+    @Column(name = "object_name", nullable = false, unique = true, columnDefinition = "TEXT")
+    @NotBlank(message = "Object name is required")
+    private String objectName;
+
+    @Column(name = "content_type", nullable = false)
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+
+    @Column(name = "file_size", nullable = false)
+    @NotNull(message = "File size is required")
+    private Long fileSize;
+
+    @Column(name = "part_size", nullable = false)
+    @NotNull(message = "Part size is required")
+    private Long partSize;
+
+    @Column(name = "parts_count", nullable = false)
+    @NotNull(message = "Parts count is required")
+    private Integer partsCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    @Convert(converter = ZonedDateTimeConverter.class)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    @Convert(converter = ZonedDateTimeConverter.class)
+    @NotNull(message = "Expiration time is required")
+    private ZonedDateTime expiresAt;
+}
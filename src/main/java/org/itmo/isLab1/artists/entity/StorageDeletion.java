@@ -0,0 +1,43 @@
+package org.itmo.isLab1.artists.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.itmo.isLab1.common.entity.BaseEntity;
+import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeConverter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Объект, ожидающий удаления из хранилища.
+ * Строки добавляются триггерами и очисткой общих объектов в транзакции удаления записей.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "art2art_storage_deletions")
+public class StorageDeletion implements BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "art2art_storage_deletions_id_seq")
+    @SequenceGenerator(name = "art2art_storage_deletions_id_seq", sequenceName = "art2art_storage_deletions_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "object_name", nullable = false, columnDefinition = "TEXT")
+    private String objectName;
+
+    /** ID незавершенной multipart загрузки, которую нужно отменить */
+    @Column(name = "upload_id", columnDefinition = "TEXT")
+    private String uploadId;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    @Convert(converter = ZonedDateTimeConverter.class)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Convert(converter = ZonedDateTimeConverter.class)
+    private ZonedDateTime nextAttemptAt;
+}
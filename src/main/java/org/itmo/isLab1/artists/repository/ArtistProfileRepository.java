@@ -3,6 +3,8 @@ package org.itmo.isLab1.artists.repository;
 import org.itmo.isLab1.artists.entity.ArtistProfile;
 import org.itmo.isLab1.users.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +13,7 @@ import java.util.Optional;
 public interface ArtistProfileRepository extends JpaRepository<ArtistProfile, Long> {
     Optional<ArtistProfile> findByUser(User user);
     Optional<ArtistProfile> findById(Long id);
+
+    @Query("select a.id from ArtistProfile a where a.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package org.itmo.isLab1.artists.repository;
+
+import org.itmo.isLab1.artists.entity.MediaBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+    /**
+     * Резервирование объекта перед загрузкой. Существующий объект без ссылок
+     * защищается от очистки до сохранения медиафайла.
+     *
+     * @param hash        SHA-256 содержимого
+     * @param objectName  путь объекта в MinIO
+     * @param contentType MIME тип
+     * @param size        размер в байтах
+     * @return true, если объект уже загружен и повторная загрузка не нужна
+     */
+    @Query(
+        value = """
+            select register_media_blob(:hash, :objectName, :contentType, :size)
+            """,
+        nativeQuery = true
+    )
+    Boolean register(
+        @Param("hash") String hash,
+        @Param("objectName") String objectName,
+        @Param("contentType") String contentType,
+        @Param("size") Long size
+    );
+
+    /**
+     * Хеши из списка, для которых есть запись объекта
+     *
+     * @param hashes хеши в формате массива PostgreSQL
+     * @return существующие хеши
+     */
+    @Query(
+        value = """
+            select hash
+            from art2art_media_blobs
+            where hash = any(cast(:hashes as char(64)[]))
+            """,
+        nativeQuery = true
+    )
+    List<String> findExistingHashes(@Param("hashes") String hashes);
+
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.stored = true WHERE b.hash = :hash")
+    int markStored(@Param("hash") String hash);
+
+    /**
+     * Объекты, на которые никто не ссылается дольше задержки.
+     * Строки блокируются до конца транзакции: параллельная загрузка того же содержимого
+     * дождется удаления и загрузит объект заново.
+     *
+     * @param graceSeconds задержка удаления в секундах
+     * @param limit        максимальное количество объектов
+     * @return объекты для удаления
+     */
+    @Query(
+        value = """
+            select *
+            from art2art_media_blobs
+            where ref_count = 0
+              and released_at < now() - make_interval(secs => :graceSeconds)
+            order by released_at
+            limit :limit
+            for update skip locked
+            """,
+        nativeQuery = true
+    )
+    List<MediaBlob> lockReleased(
+        @Param("graceSeconds") long graceSeconds,
+        @Param("limit") int limit
+    );
+}
@@ -1,11 +1,18 @@
 package org.itmo.isLab1.artists.repository;
 
+import org.itmo.isLab1.artists.entity.DerivativesStatusEnum;
 import org.itmo.isLab1.artists.entity.Media;
+import org.itmo.isLab1.artists.entity.MediaTypeEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +22,96 @@ public interface MediaRepository extends JpaRepository<Media, Long> {
     Optional<Media> findByIdAndWorkId(Long mediaId, Long workId);
     boolean existsByIdAndWorkId(Long mediaId, Long workId);
     long countByWorkId(Long workId);
-}
\ No newline at end of file
+    boolean existsByUri(String uri);
+    Optional<Media> findFirstByBlobHashAndDerivativesStatus(String blobHash, DerivativesStatusEnum derivativesStatus);
+
+    /**
+     * Все пути в MinIO, на которые ссылаются работы: оригиналы, уменьшенные копии
+     * и незавершенные загрузки по частям
+     *
+     * @param workIds ID работ в формате массива PostgreSQL, например {1,2}
+     * @return пути объектов
+     */
+    @Query(
+        value = """
+            select m.uri
+            from art2art_media m
+            where m.work_id = any(cast(:workIds as bigint[]))
+            union all
+            select d.value
+            from art2art_media m
+            cross join lateral jsonb_each_text(m.derivatives) d
+            where m.work_id = any(cast(:workIds as bigint[]))
+            union all
+            select u.object_name
+            from art2art_media_uploads u
+            where u.work_id = any(cast(:workIds as bigint[]))
+            """,
+        nativeQuery = true
+    )
+    List<String> findObjectNamesByWorkIds(@Param("workIds") String workIds);
+
+    /**
+     * ID изображений, чьи уменьшенные копии пора построить
+     *
+     * @param status   статус ожидания обработки
+     * @param now      текущее время
+     * @param pageable размер порции
+     * @return ID медиафайлов в порядке времени следующей попытки
+     */
+    @Query("""
+        SELECT m.id FROM Media m
+        WHERE m.derivativesStatus = :status AND m.derivativesNextAttemptAt <= :now
+        ORDER BY m.derivativesNextAttemptAt
+        """)
+    List<Long> findDueDerivatives(
+        @Param("status") DerivativesStatusEnum status,
+        @Param("now") ZonedDateTime now,
+        Pageable pageable
+    );
+
+    /**
+     * Захват изображения на обработку: следующая попытка откладывается на время аренды,
+     * поэтому параллельный захват того же изображения не пройдет, а при падении
+     * обработчика изображение будет обработано повторно после окончания аренды.
+     *
+     * @param id         ID медиафайла
+     * @param status     статус ожидания обработки
+     * @param now        текущее время
+     * @param leaseUntil окончание аренды
+     * @return 1, если изображение захвачено
+     */
+    @Modifying
+    @Query("""
+        UPDATE Media m SET m.derivativesNextAttemptAt = :leaseUntil
+        WHERE m.id = :id AND m.derivativesStatus = :status AND m.derivativesNextAttemptAt <= :now
+        """)
+    int claimDerivatives(
+        @Param("id") Long id,
+        @Param("status") DerivativesStatusEnum status,
+        @Param("now") ZonedDateTime now,
+        @Param("leaseUntil") ZonedDateTime leaseUntil
+    );
+
+    /**
+     * Постановка в очередь изображений без уменьшенных копий и с исчерпанными попытками
+     *
+     * @param mediaType тип изображения
+     * @param pending   статус ожидания обработки
+     * @param failed    статус ошибки обработки
+     * @param now       время первой попытки
+     * @return количество поставленных в очередь изображений
+     */
+    @Modifying
+    @Query("""
+        UPDATE Media m
+        SET m.derivativesStatus = :pending, m.derivativesAttempts = 0, m.derivativesNextAttemptAt = :now
+        WHERE m.mediaType = :mediaType AND (m.derivativesStatus IS NULL OR m.derivativesStatus = :failed)
+        """)
+    int scheduleDerivativesBackfill(
+        @Param("mediaType") MediaTypeEnum mediaType,
+        @Param("pending") DerivativesStatusEnum pending,
+        @Param("failed") DerivativesStatusEnum failed,
+        @Param("now") ZonedDateTime now
+    );
+}
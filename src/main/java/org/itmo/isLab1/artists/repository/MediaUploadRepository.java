@@ -0,0 +1,39 @@
+package org.itmo.isLab1.artists.repository;
+
+import org.itmo.isLab1.artists.entity.MediaUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MediaUploadRepository extends JpaRepository<MediaUpload, Long> {
+
+    Optional<MediaUpload> findByIdAndWorkId(Long id, Long workId);
+
+    long countByWorkId(Long workId);
+
+    /**
+     * Порция истекших загрузок для очистки
+     *
+     * @param now текущее время
+     * @return не более 100 загрузок, истекших раньше now
+     */
+    List<MediaUpload> findTop100ByExpiresAtBeforeOrderByExpiresAt(ZonedDateTime now);
+
+    /**
+     * Удаление записи загрузки. Количество удаленных строк показывает,
+     * успел ли другой запрос завершить или отменить ту же загрузку.
+     *
+     * @param id ID загрузки
+     * @return количество удаленных строк
+     */
+    @Modifying
+    @Query("DELETE FROM MediaUpload u WHERE u.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+}
@@ -0,0 +1,46 @@
+package org.itmo.isLab1.artists.repository;
+
+import org.itmo.isLab1.artists.entity.StorageDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+
+    /**
+     * Захват порции строк, чья попытка наступила. Следующая попытка сразу откладывается
+     * с экспоненциальной задержкой, поэтому параллельный обработчик те же строки не захватит,
+     * а при ошибке или падении приложения строка будет обработана повторно.
+     *
+     * @param limit         размер порции
+     * @param retryDelay    задержка после первой попытки в секундах
+     * @param maxRetryDelay максимальная задержка в секундах
+     * @return захваченные строки
+     */
+    @Query(
+        value = """
+            update art2art_storage_deletions
+            set attempts = attempts + 1,
+                next_attempt_at = now() + least(:retryDelay * power(2, attempts), :maxRetryDelay) * interval '1 second'
+            where id in (
+                select id
+                from art2art_storage_deletions
+                where next_attempt_at <= now()
+                order by next_attempt_at
+                limit :limit
+                for update skip locked
+            )
+            returning *
+            """,
+        nativeQuery = true
+    )
+    List<StorageDeletion> claimDue(
+        @Param("limit") int limit,
+        @Param("retryDelay") long retryDelay,
+        @Param("maxRetryDelay") long maxRetryDelay
+    );
+}
@@ -13,9 +13,9 @@ import org.itmo.isLab1.artists.repository.AchievementRepository;
 import org.itmo.isLab1.artists.repository.ArtistProfileRepository;
 import org.itmo.isLab1.common.errors.PolicyViolationError;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.itmo.isLab1.users.User;
 import org.itmo.isLab1.users.UserRepository;
-import org.itmo.isLab1.users.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -35,7 +35,7 @@ public class ArtistAchievementService {
     private final ArtistProfileRepository artistDetailsRepository;
     private final AchievementMapper achievementMapper;
     private final UserRepository userRepository;
-    private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
 
     /**
      * Получает все достижения художника
@@ -170,12 +170,7 @@ public class ArtistAchievementService {
      * @throws ResourceNotFoundException если профиль художника не найден
      */
     private Long getCurrentArtistId() {
-        User user = userService.getCurrentUser();
-
-        // Находим связанный ArtistDetails
-        ArtistProfile artistDetails = artistDetailsRepository.findByUser(user)
+        return currentUserResolver.getCurrentArtistId()
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль художника не найден"));
-
-        return artistDetails.getId();
     }
 }
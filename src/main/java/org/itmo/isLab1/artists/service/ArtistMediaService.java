@@ -1,34 +1,48 @@
 package org.itmo.isLab1.artists.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import org.itmo.isLab1.artists.dto.*;
 import org.itmo.isLab1.artists.entity.ArtistProfile;
 import org.itmo.isLab1.artists.entity.Media;
+import org.itmo.isLab1.artists.entity.MediaBlob;
 import org.itmo.isLab1.artists.entity.MediaTypeEnum;
+import org.itmo.isLab1.artists.entity.MediaUpload;
 import org.itmo.isLab1.artists.entity.Work;
 import org.itmo.isLab1.artists.mapper.MediaMapper;
 import org.itmo.isLab1.artists.repository.ArtistProfileRepository;
 import org.itmo.isLab1.artists.repository.MediaRepository;
+import org.itmo.isLab1.artists.repository.MediaUploadRepository;
 import org.itmo.isLab1.artists.repository.WorkRepository;
 import org.itmo.isLab1.common.errors.PolicyViolationError;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
 import org.itmo.isLab1.common.minIO.MinioService;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.itmo.isLab1.common.storage.UploadedPart;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.itmo.isLab1.users.User;
 import org.itmo.isLab1.users.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -37,15 +51,34 @@ public class ArtistMediaService {
     private final WorkRepository workRepository;
     private final ArtistProfileRepository artistDetailsRepository;
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final MediaRepository mediaRepository;
+    private final MediaUploadRepository mediaUploadRepository;
     private final MediaMapper mediaMapper;
     private final MinioService minioService;
+    private final MediaDerivativeService mediaDerivativeService;
+    private final MediaBlobService mediaBlobService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor mediaUploadExecutor;
     
     @Value("${spring.minio.media.max-file-size:10485760}")
     private long maxFileSize;
     
     @Value("${spring.minio.media.max-files-count:10}")
     private int maxFilesCount;
+
+    @Value("${spring.minio.media.max-multipart-file-size:5368709120}")
+    private long maxMultipartFileSize;
+
+    @Value("${spring.minio.multipart.part-size:16777216}")
+    private long multipartPartSize;
+
+    @Value("${spring.minio.multipart.expiry:24h}")
+    private Duration multipartExpiry;
+
+    // Ограничения S3 на multipart загрузку
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_PARTS_COUNT = 10_000;
     
     // Разрешенные MIME типы для загрузки
     private static final Set<String> ALLOWED_IMAGE_TYPES = Set.of(
@@ -73,17 +106,7 @@ public class ArtistMediaService {
         
         // Получаем медиафайлы с пагинацией
         return mediaRepository.findByWorkIdOrderByCreatedAt(workId, pageable)
-                .map(media -> {
-                    String presignedUrl = minioService.generatePresignedUrl(media.getUri());
-                    MediaDto dto = mediaMapper.toDto(media);
-
-                    return new MediaDto(
-                            dto.getId(),
-                            presignedUrl,
-                            dto.getMediaType(),
-                            dto.getFileSize()
-                    );
-                });
+                .map(this::toResponseDto);
     }
 
     /**
@@ -103,21 +126,13 @@ public class ArtistMediaService {
         
         // Получаем медиафайлы с пагинацией
         return mediaRepository.findByWorkIdOrderByCreatedAt(workId, pageable)
-                .map(media -> {
-                    String presignedUrl = minioService.generatePresignedUrl(media.getUri());
-                    MediaDto dto = mediaMapper.toDto(media);
-
-                    return new MediaDto(
-                            dto.getId(),
-                            presignedUrl,
-                            dto.getMediaType(),
-                            dto.getFileSize()
-                    );
-                });
+                .map(this::toResponseDto);
     }
 
     /**
      * Загружает медиафайлы для указанной работы.
+     * Файлы сохраняются вне транзакции по хешу содержимого: уже хранящееся содержимое
+     * повторно не загружается. После этого записи медиафайлов сохраняются одной пачкой в короткой транзакции.
      *
      * @param artistId ID художника
      * @param workId ID работы
@@ -126,54 +141,436 @@ public class ArtistMediaService {
      * @throws ResourceNotFoundException если работа не найдена или не принадлежит художнику
      * @throws PolicyViolationError если файлы не прошли валидацию
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<MediaDto> uploadMedia(Long artistId, Long workId, MultipartFile[] files) {
         // Проверяем принадлежность работы художнику
-        Work work = validateWorkOwnership(artistId, workId);
+        validateWorkOwnership(artistId, workId);
         
         // Валидируем файлы
         validateFiles(files, workId);
-        
-        List<MediaDto> uploadedMedia = new ArrayList<>();
-        
-        try {
-            for (MultipartFile file : files) {
-                // Загружаем файл в MinIO
-                String objectName = minioService.uploadFile(file, artistId, workId);
-                
-                // Определяем тип медиафайла
-                MediaTypeEnum mediaType = determineMediaType(file.getContentType());
-                
-                // Создаем запись в базе данных
-                Media media = Media.builder()
+
+        // Объекты без ссылок удалит очистка MediaBlobService, откат загрузки не нужен
+        List<MediaBlob> blobs = mediaBlobService.store(files);
+
+        List<Media> savedMedia = transactionTemplate.execute(status -> {
+            Work work = workRepository.getReferenceById(workId);
+            List<Media> media = new ArrayList<>();
+            for (int i = 0; i < files.length; i++) {
+                media.add(Media.builder()
                         .work(work)
-                        .uri(objectName)
-                        .mediaType(mediaType)
-                        .fileSize(file.getSize())
-                        .build();
-                
-                Media savedMedia = mediaRepository.save(media);
-                
-                // Генерируем presigned URL для ответа
-                String presignedUrl = minioService.generatePresignedUrl(objectName);
-                MediaDto dto = mediaMapper.toDto(savedMedia);
-                MediaDto responseDto = new MediaDto(dto.getId(), presignedUrl, dto.getMediaType(),
-                                                  dto.getFileSize());
-                
-                uploadedMedia.add(responseDto);
+                        .uri(blobs.get(i).getObjectName())
+                        .blobHash(blobs.get(i).getHash())
+                        .mediaType(determineMediaType(files[i].getContentType()))
+                        .fileSize(files[i].getSize())
+                        .build());
+            }
+            media.forEach(mediaDerivativeService::schedule);
+            return mediaRepository.saveAll(media);
+        });
+        mediaDerivativeService.submit(savedMedia);
+
+        return toResponseDtos(savedMedia);
+    }
+
+    /**
+     * Преобразует сохраненные медиафайлы в DTO с presigned URL.
+     *
+     * @param savedMedia сохраненные медиафайлы
+     * @return список DTO
+     */
+    private List<MediaDto> toResponseDtos(List<Media> savedMedia) {
+        return savedMedia.stream()
+                .map(this::toResponseDto)
+                .toList();
+    }
+
+    /**
+     * Преобразует медиафайл в DTO с presigned URL оригинала и превью.
+     *
+     * @param media медиафайл
+     * @return DTO
+     */
+    private MediaDto toResponseDto(Media media) {
+        MediaDto dto = mediaMapper.toDto(media);
+        String thumbnail = mediaDerivativeService.getThumbnailObjectName(media);
+
+        return new MediaDto(
+                dto.getId(),
+                minioService.generatePresignedUrl(media.getUri()),
+                dto.getMediaType(),
+                dto.getFileSize(),
+                thumbnail == null ? null : minioService.generatePresignedUrl(thumbnail)
+        );
+    }
+
+    /**
+     * Выдает разрешения на загрузку файлов напрямую в хранилище, минуя приложение.
+     * Записи медиафайлов создаются только после подтверждения загрузки
+     * методом {@link #completeDirectUploads}.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param request описание загружаемых файлов
+     * @return разрешения на загрузку в порядке файлов запроса
+     * @throws ResourceNotFoundException если работа не найдена или не принадлежит художнику
+     * @throws PolicyViolationError если файлы не прошли валидацию
+     */
+    public List<MediaUploadTicketDto> createUploadTickets(Long artistId, Long workId, MediaUploadRequestDto request) {
+        validateWorkOwnership(artistId, workId);
+        validateFilesCount(workId, request.getFiles().size());
+
+        ZonedDateTime expiresAt = ZonedDateTime.now().plus(minioService.getUploadUrlExpiry());
+        List<MediaUploadTicketDto> tickets = new ArrayList<>();
+        for (MediaUploadFileDto file : request.getFiles()) {
+            validateFileAttributes(file.getContentType(), file.getSize());
+
+            String objectName = minioService.generateObjectName(artistId, workId, file.getFileName());
+            tickets.add(MediaUploadTicketDto.builder()
+                    .fileName(file.getFileName())
+                    .objectName(objectName)
+                    .uploadUrl(minioService.generatePresignedUploadUrl(objectName))
+                    .contentType(file.getContentType())
+                    .maxSize(maxFileSize)
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        return tickets;
+    }
+
+    /**
+     * Подтверждает загрузку файлов, выполненную по разрешениям {@link #createUploadTickets}.
+     * Каждый объект проверяется одним запросом метаданных к хранилищу: размер и тип должны
+     * удовлетворять тем же ограничениям, что и при загрузке через приложение.
+     * Объекты, не прошедшие проверку, удаляются из хранилища.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param request пути загруженных объектов
+     * @return список DTO зарегистрированных медиафайлов
+     * @throws ResourceNotFoundException если работа или объект не найдены
+     * @throws PolicyViolationError если объект не принадлежит работе или не прошел валидацию
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MediaDto> completeDirectUploads(Long artistId, Long workId, MediaUploadCompleteDto request) {
+        validateWorkOwnership(artistId, workId);
+
+        List<String> objectNames = request.getObjectNames().stream().distinct().toList();
+        String prefix = minioService.workObjectPrefix(artistId, workId);
+        for (String objectName : objectNames) {
+            // Разрешения выдаются только на пути внутри работы, чужие объекты зарегистрировать нельзя
+            if (!objectName.startsWith(prefix) || objectName.indexOf('/', prefix.length()) >= 0) {
+                throw new PolicyViolationError("Файл " + objectName + " не относится к работе " + workId);
+            }
+        }
+
+        List<CompletableFuture<StoredObject>> stats = objectNames.stream()
+                .map(objectName -> CompletableFuture.supplyAsync(
+                        () -> minioService.statFile(objectName),
+                        mediaUploadExecutor
+                ))
+                .toList();
+        List<StoredObject> objects;
+        try {
+            objects = stats.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+
+        for (StoredObject object : objects) {
+            try {
+                validateFileAttributes(object.contentType(), object.size());
+            } catch (PolicyViolationError e) {
+                rollbackUploadedFiles(List.of(object.objectName()));
+                throw e;
             }
-            
-            return uploadedMedia;
-            
-        } catch (Exception e) {
-            // В случае ошибки откатываем уже загруженные файлы
-            rollbackUploadedFiles(uploadedMedia);
+        }
+
+        List<Media> savedMedia;
+        try {
+            savedMedia = transactionTemplate.execute(status -> {
+                validateFilesCount(workId, objects.size());
+                Work work = workRepository.getReferenceById(workId);
+                List<Media> media = new ArrayList<>();
+                for (StoredObject object : objects) {
+                    if (mediaRepository.existsByUri(object.objectName())) {
+                        throw new PolicyViolationError("Файл " + object.objectName() + " уже зарегистрирован");
+                    }
+                    media.add(Media.builder()
+                            .work(work)
+                            .uri(object.objectName())
+                            .mediaType(determineMediaType(object.contentType()))
+                            .fileSize(object.size())
+                            .build());
+                }
+                media.forEach(mediaDerivativeService::schedule);
+                return mediaRepository.saveAll(media);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Проверка выше не видит незафиксированные строки: параллельное подтверждение того же объекта
+            // останавливает уникальный индекс по uri
+            throw new PolicyViolationError("Файлы уже зарегистрированы параллельным запросом");
+        }
+        mediaDerivativeService.submit(savedMedia);
+
+        return toResponseDtos(savedMedia);
+    }
+
+    /**
+     * Начинает возобновляемую загрузку видео по частям.
+     * Размер части выбирается сервером, части загружаются клиентом напрямую в хранилище
+     * по URL из {@link #getPartUploadUrl}. Незавершенная загрузка отменяется по истечении срока.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param file описание загружаемого файла
+     * @return параметры загрузки
+     * @throws ResourceNotFoundException если работа не найдена или не принадлежит художнику
+     * @throws PolicyViolationError если файл не прошел валидацию
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MultipartUploadDto initiateMultipartUpload(Long artistId, Long workId, MediaUploadFileDto file) {
+        validateWorkOwnership(artistId, workId);
+        validateFilesCount(workId, 1);
+        validateMultipartFileAttributes(file.getContentType(), file.getSize());
+
+        long partSize = choosePartSize(file.getSize());
+        int partsCount = (int) ((file.getSize() + partSize - 1) / partSize);
+
+        String objectName = minioService.generateObjectName(artistId, workId, file.getFileName());
+        String uploadId = minioService.createMultipartUpload(objectName, file.getContentType());
+
+        MediaUpload upload;
+        try {
+            upload = transactionTemplate.execute(status -> mediaUploadRepository.save(MediaUpload.builder()
+                    .work(workRepository.getReferenceById(workId))
+                    .uploadId(uploadId)
+                    .objectName(objectName)
+                    .contentType(file.getContentType())
+                    .fileSize(file.getSize())
+                    .partSize(partSize)
+                    .partsCount(partsCount)
+                    .expiresAt(ZonedDateTime.now().plus(multipartExpiry))
+                    .build()));
+        } catch (RuntimeException e) {
+            minioService.abortMultipartUpload(objectName, uploadId);
+            throw e;
+        }
+
+        return toMultipartUploadDto(upload);
+    }
+
+    /**
+     * Выдает URL для загрузки одной части файла.
+     * Повторная загрузка части с тем же номером заменяет ранее загруженную.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param uploadId ID загрузки
+     * @param partNumber номер части, от 1 до количества частей
+     * @return разрешение на загрузку части
+     * @throws ResourceNotFoundException если работа или загрузка не найдены
+     * @throws PolicyViolationError если номер части вне допустимого диапазона
+     */
+    public MultipartPartUrlDto getPartUploadUrl(Long artistId, Long workId, Long uploadId, int partNumber) {
+        validateWorkOwnership(artistId, workId);
+        MediaUpload upload = getActiveUpload(workId, uploadId);
+
+        if (partNumber < 1 || partNumber > upload.getPartsCount()) {
+            throw new PolicyViolationError("Номер части должен быть от 1 до " + upload.getPartsCount());
+        }
+
+        return MultipartPartUrlDto.builder()
+                .partNumber(partNumber)
+                .uploadUrl(minioService.generatePresignedPartUrl(upload.getObjectName(), upload.getUploadId(), partNumber))
+                .expiresAt(ZonedDateTime.now().plus(minioService.getUploadUrlExpiry()))
+                .build();
+    }
+
+    /**
+     * Возвращает уже загруженные части. Источник истины - хранилище,
+     * поэтому после обрыва клиент получает фактическое состояние загрузки.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param uploadId ID загрузки
+     * @return загруженные части по возрастанию номера
+     * @throws ResourceNotFoundException если работа или загрузка не найдены
+     */
+    public List<MultipartPartDto> listUploadedParts(Long artistId, Long workId, Long uploadId) {
+        validateWorkOwnership(artistId, workId);
+        MediaUpload upload = getActiveUpload(workId, uploadId);
+
+        return minioService.listUploadedParts(upload.getObjectName(), upload.getUploadId()).stream()
+                .map(part -> MultipartPartDto.builder()
+                        .partNumber(part.partNumber())
+                        .size(part.size())
+                        .etag(part.etag())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Завершает загрузку по частям: проверяет, что загружены все части заявленного размера,
+     * собирает объект в хранилище и регистрирует медиафайл.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param uploadId ID загрузки
+     * @return DTO зарегистрированного медиафайла
+     * @throws ResourceNotFoundException если работа или загрузка не найдены
+     * @throws PolicyViolationError если загружены не все части или их размер не совпадает с заявленным
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MediaDto completeMultipartUpload(Long artistId, Long workId, Long uploadId) {
+        validateWorkOwnership(artistId, workId);
+        MediaUpload upload = getActiveUpload(workId, uploadId);
+
+        List<UploadedPart> parts = minioService.listUploadedParts(upload.getObjectName(), upload.getUploadId());
+        validateUploadedParts(upload, parts);
+
+        minioService.completeMultipartUpload(upload.getObjectName(), upload.getUploadId(), parts);
+
+        Media savedMedia;
+        try {
+            savedMedia = transactionTemplate.execute(status -> {
+                if (mediaUploadRepository.deleteByIdReturningCount(upload.getId()) == 0) {
+                    // Загрузку уже завершил параллельный запрос, собранный объект принадлежит ему
+                    return null;
+                }
+                validateFilesCount(workId, 1);
+                return mediaRepository.save(Media.builder()
+                        .work(workRepository.getReferenceById(workId))
+                        .uri(upload.getObjectName())
+                        .mediaType(determineMediaType(upload.getContentType()))
+                        .fileSize(upload.getFileSize())
+                        .build());
+            });
+        } catch (RuntimeException e) {
+            rollbackUploadedFiles(List.of(upload.getObjectName()));
             throw e;
         }
+        if (savedMedia == null) {
+            throw new ResourceNotFoundException("Загрузка с ID " + uploadId + " не найдена для работы " + workId);
+        }
+
+        return toResponseDtos(List.of(savedMedia)).get(0);
+    }
+
+    /**
+     * Отменяет загрузку по частям и удаляет загруженные части.
+     *
+     * @param artistId ID художника
+     * @param workId ID работы
+     * @param uploadId ID загрузки
+     * @throws ResourceNotFoundException если работа или загрузка не найдены
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void abortMultipartUpload(Long artistId, Long workId, Long uploadId) {
+        validateWorkOwnership(artistId, workId);
+        MediaUpload upload = mediaUploadRepository.findByIdAndWorkId(uploadId, workId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Загрузка с ID " + uploadId + " не найдена для работы " + workId));
+
+        minioService.abortMultipartUpload(upload.getObjectName(), upload.getUploadId());
+        transactionTemplate.executeWithoutResult(status -> mediaUploadRepository.deleteByIdReturningCount(upload.getId()));
+    }
+
+    /**
+     * Находит незавершенную загрузку работы, срок которой еще не истек.
+     *
+     * @param workId ID работы
+     * @param uploadId ID загрузки
+     * @return загрузка
+     * @throws ResourceNotFoundException если загрузка не найдена или истекла
+     */
+    private MediaUpload getActiveUpload(Long workId, Long uploadId) {
+        return mediaUploadRepository.findByIdAndWorkId(uploadId, workId)
+                .filter(upload -> upload.getExpiresAt().isAfter(ZonedDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Загрузка с ID " + uploadId + " не найдена для работы " + workId));
+    }
+
+    /**
+     * Проверяет, что загружены части 1..N и их размеры складываются в заявленный размер файла.
+     *
+     * @param upload загрузка
+     * @param parts части из хранилища по возрастанию номера
+     * @throws PolicyViolationError если части не соответствуют загрузке
+     */
+    private void validateUploadedParts(MediaUpload upload, List<UploadedPart> parts) {
+        if (parts.size() != upload.getPartsCount()) {
+            throw new PolicyViolationError("Загружено частей: " + parts.size() + " из " + upload.getPartsCount());
+        }
+
+        long totalSize = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            UploadedPart part = parts.get(i);
+            if (part.partNumber() != i + 1) {
+                throw new PolicyViolationError("Не загружена часть " + (i + 1));
+            }
+            boolean last = i == parts.size() - 1;
+            if (!last && part.size() != upload.getPartSize()) {
+                throw new PolicyViolationError("Размер части " + part.partNumber() + " должен быть " +
+                        upload.getPartSize() + " байт");
+            }
+            totalSize += part.size();
+        }
+
+        if (totalSize != upload.getFileSize()) {
+            throw new PolicyViolationError("Размер загруженного файла " + totalSize +
+                    " не совпадает с заявленным " + upload.getFileSize());
+        }
+    }
+
+    /**
+     * Валидирует файл, загружаемый по частям: разрешены только видео до отдельного лимита размера.
+     *
+     * @param contentType MIME тип файла
+     * @param size размер файла в байтах
+     * @throws PolicyViolationError если файл не прошел валидацию
+     */
+    private void validateMultipartFileAttributes(String contentType, long size) {
+        if (contentType == null || !ALLOWED_VIDEO_TYPES.contains(contentType)) {
+            throw new PolicyViolationError("Загрузка по частям поддерживается только для файлов типа MP4");
+        }
+
+        if (size > maxMultipartFileSize) {
+            throw new PolicyViolationError("Размер файла не должен превышать " +
+                    (maxMultipartFileSize / 1024 / 1024) + " МБ");
+        }
+    }
+
+    /**
+     * Выбирает размер части: настроенный размер, увеличенный при необходимости так,
+     * чтобы количество частей не превышало ограничение S3.
+     *
+     * @param fileSize размер файла в байтах
+     * @return размер части в байтах
+     */
+    private long choosePartSize(long fileSize) {
+        long partSize = Math.max(multipartPartSize, MIN_PART_SIZE);
+        long minPartSize = (fileSize + MAX_PARTS_COUNT - 1) / MAX_PARTS_COUNT;
+        if (partSize < minPartSize) {
+            // Округляем вверх до мегабайта
+            long megabyte = 1024L * 1024;
+            partSize = (minPartSize + megabyte - 1) / megabyte * megabyte;
+        }
+        return partSize;
+    }
+
+    private MultipartUploadDto toMultipartUploadDto(MediaUpload upload) {
+        return MultipartUploadDto.builder()
+                .id(upload.getId())
+                .contentType(upload.getContentType())
+                .fileSize(upload.getFileSize())
+                .partSize(upload.getPartSize())
+                .partsCount(upload.getPartsCount())
+                .expiresAt(upload.getExpiresAt())
+                .build();
     }
 
     /**
-     * Удаляет медиафайл.
+     * Удаляет медиафайл. Объекты удаляются из хранилища в фоне через очередь удаления.
      *
      * @param artistId ID художника
      * @param workId ID работы
@@ -190,16 +587,9 @@ public class ArtistMediaService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Медиафайл с ID " + mediaId + " не найден для работы " + workId));
         
-        try {
-            // Удаляем файл из MinIO
-            minioService.deleteFile(media.getUri());
-            
-            // Удаляем запись из базы данных
-            mediaRepository.delete(media);
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при удалении медиафайла: " + e.getMessage(), e);
-        }
+        // Объекты из хранилища удаляются в фоне: собственный объект медиафайла и его копии
+        // ставит в очередь удаления триггер, общий объект - очистка, когда на него не останется ссылок
+        mediaRepository.delete(media);
     }
 
     /**
@@ -228,20 +618,31 @@ public class ArtistMediaService {
             throw new PolicyViolationError("Необходимо выбрать файлы для загрузки");
         }
         
+        validateFilesCount(workId, files.length);
+        
+        for (MultipartFile file : files) {
+            validateSingleFile(file);
+        }
+    }
+
+    /**
+     * Проверяет, что работа не превысит лимит медиафайлов после добавления новых.
+     *
+     * @param workId ID работы
+     * @param newFilesCount количество добавляемых файлов
+     * @throws PolicyViolationError если лимит превышен
+     */
+    private void validateFilesCount(Long workId, int newFilesCount) {
         // Проверяем количество файлов
-        if (files.length > maxFilesCount) {
+        if (newFilesCount > maxFilesCount) {
             throw new PolicyViolationError("Можно загрузить не более " + maxFilesCount + " файлов за раз");
         }
         
         // Проверяем существующее количество медиафайлов
         long currentMediaCount = mediaRepository.countByWorkId(workId);
-        if (currentMediaCount + files.length > maxFilesCount) {
+        if (currentMediaCount + newFilesCount > maxFilesCount) {
             throw new PolicyViolationError("Общее количество медиафайлов не может превышать " + maxFilesCount);
         }
-        
-        for (MultipartFile file : files) {
-            validateSingleFile(file);
-        }
     }
 
     /**
@@ -251,18 +652,31 @@ public class ArtistMediaService {
      * @throws PolicyViolationError если файл не прошел валидацию
      */
     private void validateSingleFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
+        if (file == null) {
+            throw new PolicyViolationError("Файл не должен быть пустым");
+        }
+        validateFileAttributes(file.getContentType(), file.getSize());
+    }
+
+    /**
+     * Валидирует размер и тип файла.
+     *
+     * @param contentType MIME тип файла
+     * @param size размер файла в байтах
+     * @throws PolicyViolationError если файл не прошел валидацию
+     */
+    private void validateFileAttributes(String contentType, long size) {
+        if (size <= 0) {
             throw new PolicyViolationError("Файл не должен быть пустым");
         }
         
         // Проверяем размер файла
-        if (file.getSize() > maxFileSize) {
+        if (size > maxFileSize) {
             throw new PolicyViolationError("Размер файла не должен превышать " +
                     (maxFileSize / 1024 / 1024) + " МБ");
         }
         
         // Проверяем тип файла
-        String contentType = file.getContentType();
         if (contentType == null || (!ALLOWED_IMAGE_TYPES.contains(contentType) &&
                                    !ALLOWED_VIDEO_TYPES.contains(contentType))) {
             throw new PolicyViolationError("Поддерживаются только файлы типов: JPEG, PNG, MP4");
@@ -286,19 +700,25 @@ public class ArtistMediaService {
 
     /**
      * Откатывает загруженные файлы в случае ошибки.
+     * Удаления выполняются параллельно, ошибки удаления только логируются.
      *
-     * @param uploadedMedia список уже загруженных медиафайлов
+     * @param objectNames пути загруженных файлов в хранилище
      */
-    private void rollbackUploadedFiles(List<MediaDto> uploadedMedia) {
-        for (MediaDto media : uploadedMedia) {
-            try {
-                mediaRepository.deleteById(media.getId());
-                minioService.deleteFile(media.getUri());
-            } catch (Exception rollbackException) {
-                // Логируем ошибку отката, но не прерываем процесс
-                // В реальном приложении здесь должна быть более сложная логика восстановления
-            }
-        }
+    private void rollbackUploadedFiles(List<String> objectNames) {
+        CompletableFuture.allOf(objectNames.stream()
+                .map(objectName -> CompletableFuture.runAsync(() -> {
+                    try {
+                        minioService.deleteFile(objectName);
+                    } catch (Exception rollbackException) {
+                        log.warn("Не удалось удалить файл {} при откате загрузки", objectName, rollbackException);
+                    }
+                }, mediaUploadExecutor))
+                .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
     }
 
     /**
@@ -309,17 +729,8 @@ public class ArtistMediaService {
      * @throws ResourceNotFoundException если профиль художника не найден
      */
     private Long getCurrentArtistId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException(
-                        "Пользователь с username " + username + " не найден"));
-        
-        ArtistProfile artistDetails = artistDetailsRepository.findByUser(user)
+        return currentUserResolver.getCurrentArtistId()
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль художника не найден"));
-        
-        return artistDetails.getId();
     }
 
     private ArtistProfile getArtistProfileByUserId(Long userId){
@@ -10,6 +10,7 @@ import org.itmo.isLab1.artists.mapper.ArtistMapper;
 import org.itmo.isLab1.artists.repository.ArtistProfileRepository;
 import org.itmo.isLab1.common.errors.EntityDuplicateException;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.itmo.isLab1.users.User;
 import org.itmo.isLab1.users.UserRepository;
 import org.itmo.isLab1.users.UserService;
@@ -25,6 +26,7 @@ public class ArtistService {
 
     private final UserRepository userRepository;
     private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
     private final ArtistProfileRepository artistDetailsRepository;
     private final ArtistMapper artistMapper;
 
@@ -89,6 +91,7 @@ public class ArtistService {
         
         // Сохраняем ArtistDetails
         ArtistProfile savedDetails = artistDetailsRepository.save(details);
+        currentUserResolver.evict(user.getId());
         
         // Возвращаем профиль
         return artistMapper.toProfileResponse(user, savedDetails);
@@ -103,7 +106,9 @@ public class ArtistService {
      */
     @Transactional
     public ArtistProfileDto updateArtistProfile(ArtistProfileUpdateDto request) {
-        User user = userService.getCurrentUser();
+        // Загружаем пользователя из БД, а не из кеша, так как он будет изменен
+        User user = userRepository.findById(userService.getCurrentUserId())
+                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден"));
         
         // Находим существующий ArtistDetails
         ArtistProfile details = artistDetailsRepository.findByUser(user)
@@ -120,6 +125,7 @@ public class ArtistService {
         
         // Сохраняем ArtistDetails
         ArtistProfile savedDetails = artistDetailsRepository.save(details);
+        currentUserResolver.evict(user.getId());
         
         // Возвращаем обновленный профиль
         return artistMapper.toProfileResponse(user, savedDetails);
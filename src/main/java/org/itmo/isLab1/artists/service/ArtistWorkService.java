@@ -9,12 +9,11 @@ import org.itmo.isLab1.artists.mapper.WorkMapper;
 import org.itmo.isLab1.artists.repository.ArtistProfileRepository;
 import org.itmo.isLab1.artists.repository.WorkRepository;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.itmo.isLab1.users.User;
 import org.itmo.isLab1.users.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +27,7 @@ public class ArtistWorkService {
     private final WorkRepository workRepository;
     private final ArtistProfileRepository artistDetailsRepository;
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final WorkMapper workMapper;
 
     /**
@@ -124,7 +124,8 @@ public class ArtistWorkService {
                     "Работа с ID " + id + " не найдена для текущего художника");
         }
         
-        // Удаляем работу
+        // Удаляем работу; медиафайлы и загрузки удаляются каскадно,
+        // их объекты ставят в очередь удаления триггеры
         workRepository.deleteById(id);
     }
 
@@ -136,17 +137,8 @@ public class ArtistWorkService {
      * @throws ResourceNotFoundException если профиль художника не найден
      */
     private Long getCurrentArtistId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException(
-                        "Пользователь с username " + username + " не найден"));
-        
-        ArtistProfile artistDetails = artistDetailsRepository.findByUser(user)
+        return currentUserResolver.getCurrentArtistId()
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль художника не найден"));
-        
-        return artistDetails.getId();
     }
 
     /**
@@ -0,0 +1,192 @@
+package org.itmo.isLab1.artists.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.itmo.isLab1.artists.entity.MediaBlob;
+import org.itmo.isLab1.artists.repository.MediaBlobRepository;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Хранение содержимого медиафайлов по SHA-256.
+ * Одинаковое содержимое хранится в MinIO один раз, повторная загрузка сводится к записи в БД.
+ * Объект удаляется очисткой, когда на него дольше задержки не ссылается ни один медиафайл.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaBlobService {
+
+    private final MediaBlobRepository mediaBlobRepository;
+    private final MediaDerivativeService mediaDerivativeService;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor mediaUploadExecutor;
+
+    @Value("${app.media.blobs.grace-period:1h}")
+    private Duration gracePeriod;
+
+    @Value("${app.media.blobs.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    /**
+     * Сохраняет файлы в хранилище по хешу содержимого.
+     * Хеши считаются параллельно в пуле mediaUploadExecutor, в MinIO загружается только
+     * содержимое, которого там еще нет. Зарезервированные объекты защищены от очистки
+     * на время задержки, за которое медиафайлы должны быть сохранены.
+     *
+     * @param files загружаемые файлы
+     * @return объекты хранилища в порядке файлов
+     * @throws RuntimeException если произошла ошибка при чтении файла или загрузке
+     */
+    public List<MediaBlob> store(MultipartFile[] files) {
+        List<String> hashes = await(Arrays.stream(files)
+                .map(file -> CompletableFuture.supplyAsync(() -> sha256(file), mediaUploadExecutor))
+                .toList());
+
+        List<MediaBlob> blobs = new ArrayList<>();
+        for (int i = 0; i < files.length; i++) {
+            blobs.add(MediaBlob.builder()
+                    .hash(hashes.get(i))
+                    .objectName(minioService.blobObjectName(hashes.get(i)))
+                    .contentType(files[i].getContentType())
+                    .size(files[i].getSize())
+                    .build());
+        }
+
+        List<Boolean> stored = transactionTemplate.execute(status -> blobs.stream()
+                .map(blob -> mediaBlobRepository.register(
+                        blob.getHash(), blob.getObjectName(), blob.getContentType(), blob.getSize()))
+                .toList());
+
+        // Одинаковые файлы в одном запросе загружаются один раз
+        Set<String> uploading = new HashSet<>();
+        List<CompletableFuture<String>> uploads = new ArrayList<>();
+        for (int i = 0; i < files.length; i++) {
+            MediaBlob blob = blobs.get(i);
+            MultipartFile file = files[i];
+            if (!Boolean.TRUE.equals(stored.get(i)) && uploading.add(blob.getHash())) {
+                uploads.add(CompletableFuture.supplyAsync(() -> {
+                    minioService.uploadFile(file, blob.getObjectName());
+                    return blob.getHash();
+                }, mediaUploadExecutor));
+            }
+        }
+        List<String> uploaded = await(uploads);
+
+        if (!uploaded.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> uploaded.forEach(mediaBlobRepository::markStored));
+        }
+        log.debug("Сохранено файлов: {}, загружено в хранилище: {}", files.length, uploaded.size());
+
+        return blobs;
+    }
+
+    /**
+     * Удаление объектов, на которые дольше задержки не ссылается ни один медиафайл,
+     * вместе с их уменьшенными копиями.
+     * Объекты удаляются из хранилища, пока записи заблокированы: параллельная загрузка того же
+     * содержимого ждет конца транзакции и загружает объект заново. Очередь удаления здесь не подходит:
+     * она удалила бы объект после снятия блокировки, когда его уже могли загрузить повторно.
+     * Записи, объекты которых удалить не удалось, остаются до следующей очистки.
+     */
+    @Scheduled(
+        fixedDelayString = "${app.media.blobs.sweep-interval:900000}",
+        initialDelayString = "${app.media.blobs.sweep-interval:900000}"
+    )
+    public void sweep() {
+        int removed = 0;
+        SweepBatch batch;
+        do {
+            try {
+                batch = transactionTemplate.execute(status -> sweepBatch());
+            } catch (RuntimeException e) {
+                log.warn("Не удалось удалить объекты без ссылок, повтор при следующей очистке: {}", e.getMessage());
+                break;
+            }
+            removed += batch.removed();
+            // Записи с ошибкой удаления снова попали бы в выборку, они ждут следующей очистки
+        } while (batch.locked() == sweepBatchSize && batch.removed() == batch.locked());
+
+        if (removed > 0) {
+            log.info("Удалено объектов без ссылок: {}", removed);
+        }
+    }
+
+    /**
+     * Удаление порции объектов без ссылок в транзакции, удерживающей блокировку записей
+     */
+    private SweepBatch sweepBatch() {
+        List<MediaBlob> released = mediaBlobRepository.lockReleased(gracePeriod.toSeconds(), sweepBatchSize);
+        if (released.isEmpty()) {
+            return new SweepBatch(0, 0);
+        }
+
+        Map<String, List<String>> objectNames = new HashMap<>();
+        for (MediaBlob blob : released) {
+            List<String> names = new ArrayList<>();
+            names.add(blob.getObjectName());
+            names.addAll(mediaDerivativeService.derivativeObjectNames(blob.getObjectName()));
+            objectNames.put(blob.getHash(), names);
+        }
+        Set<String> failed = new HashSet<>(minioService.removeFiles(
+                objectNames.values().stream().flatMap(List::stream).toList()
+        ));
+
+        List<MediaBlob> removed = released.stream()
+                .filter(blob -> objectNames.get(blob.getHash()).stream().noneMatch(failed::contains))
+                .toList();
+        mediaBlobRepository.deleteAll(removed);
+        return new SweepBatch(released.size(), removed.size());
+    }
+
+    private record SweepBatch(int locked, int removed) {
+    }
+
+    /**
+     * Считает SHA-256 содержимого файла за один проход по потоку
+     *
+     * @param file файл
+     * @return хеш в шестнадцатеричном виде
+     */
+    private static String sha256(MultipartFile file) {
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Ошибка при чтении файла: " + e.getMessage(), e);
+        }
+    }
+
+    private static <T> List<T> await(List<CompletableFuture<T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
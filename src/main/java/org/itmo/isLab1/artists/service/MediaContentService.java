@@ -0,0 +1,72 @@
+package org.itmo.isLab1.artists.service;
+
+import lombok.RequiredArgsConstructor;
+
+import org.itmo.isLab1.artists.entity.Media;
+import org.itmo.isLab1.artists.entity.MediaBlob;
+import org.itmo.isLab1.artists.repository.MediaBlobRepository;
+import org.itmo.isLab1.artists.repository.MediaRepository;
+import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+
+/**
+ * Сервис чтения содержимого медиафайлов для отдачи через приложение
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaContentService {
+
+    private final MediaRepository mediaRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final MinioService minioService;
+
+    /**
+     * Метаданные содержимого медиафайла.
+     * Для содержимого, хранящегося по хешу, метаданные берутся из БД без обращения к хранилищу,
+     * ETag - хеш содержимого.
+     *
+     * @param mediaId ID медиафайла
+     * @return метаданные объекта в хранилище
+     * @throws ResourceNotFoundException если медиафайл или его объект не найден
+     */
+    @Transactional(readOnly = true)
+    public StoredObject getContent(Long mediaId) {
+        Media media = mediaRepository.findById(mediaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Медиафайл не найден: " + mediaId));
+
+        if (media.getBlobHash() != null) {
+            MediaBlob blob = mediaBlobRepository.findById(media.getBlobHash())
+                    .orElseThrow(() -> new ResourceNotFoundException("Медиафайл не найден: " + mediaId));
+            return new StoredObject(
+                    blob.getObjectName(),
+                    blob.getSize(),
+                    blob.getContentType(),
+                    blob.getHash(),
+                    blob.getCreatedAt()
+            );
+        }
+        return minioService.statFile(media.getUri());
+    }
+
+    /**
+     * Открывает часть содержимого одним ранжированным запросом к хранилищу.
+     * Поток должен быть закрыт вызывающим кодом.
+     *
+     * @param content метаданные, полученные из {@link #getContent}
+     * @param offset  смещение первого байта
+     * @param length  количество байт
+     * @return содержимое части объекта
+     * @throws ResourceNotFoundException если объект не найден
+     */
+    public InputStream openRange(StoredObject content, long offset, long length) {
+        if (offset == 0 && length == content.size()) {
+            return minioService.getFile(content.objectName());
+        }
+        return minioService.getFile(content.objectName(), offset, length);
+    }
+}
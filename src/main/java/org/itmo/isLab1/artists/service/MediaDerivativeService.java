@@ -0,0 +1,345 @@
+package org.itmo.isLab1.artists.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.itmo.isLab1.artists.entity.DerivativesStatusEnum;
+import org.itmo.isLab1.artists.entity.Media;
+import org.itmo.isLab1.artists.entity.MediaTypeEnum;
+import org.itmo.isLab1.artists.repository.MediaRepository;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Построение уменьшенных копий изображений.
+ * Изображение декодируется один раз, копии фиксированной ширины сохраняются в JPEG рядом
+ * с оригиналом и записываются в медиафайл. Обработка идет в ограниченном пуле
+ * mediaDerivativeExecutor, неудачные попытки повторяются с экспоненциальной задержкой.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaDerivativeService {
+
+    private static final String DERIVATIVE_CONTENT_TYPE = "image/jpeg";
+
+    private final MediaRepository mediaRepository;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor mediaDerivativeExecutor;
+
+    @Value("${app.media.derivatives.widths:160,480,1200}")
+    private List<Integer> widths;
+
+    @Value("${app.media.derivatives.thumbnail-width:480}")
+    private int thumbnailWidth;
+
+    @Value("${app.media.derivatives.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${app.media.derivatives.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.media.derivatives.retry-delay:1m}")
+    private Duration retryDelay;
+
+    @Value("${app.media.derivatives.lease:10m}")
+    private Duration lease;
+
+    @Value("${app.media.derivatives.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * Помечает новое изображение для построения копий. Вызывается до сохранения медиафайла.
+     *
+     * @param media новый медиафайл
+     */
+    public void schedule(Media media) {
+        if (media.getMediaType() == MediaTypeEnum.IMAGE) {
+            media.setDerivativesStatus(DerivativesStatusEnum.PENDING);
+            media.setDerivativesNextAttemptAt(ZonedDateTime.now());
+        }
+    }
+
+    /**
+     * Отправляет сохраненные изображения на обработку. Вызывается после фиксации транзакции.
+     * Изображения, не поместившиеся в очередь пула, обработает периодическая задача.
+     *
+     * @param media сохраненные медиафайлы
+     */
+    public void submit(List<Media> media) {
+        for (Media item : media) {
+            if (item.getDerivativesStatus() == DerivativesStatusEnum.PENDING && !submit(item.getId())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Пути всех уменьшенных копий изображения, независимо от того, построены ли они
+     *
+     * @param objectName путь к оригиналу в MinIO
+     * @return пути копий в MinIO
+     */
+    public List<String> derivativeObjectNames(String objectName) {
+        return widths.stream()
+            .map(width -> minioService.derivativeObjectName(objectName, width))
+            .toList();
+    }
+
+    /**
+     * Путь уменьшенной копии, используемой как превью
+     *
+     * @param media медиафайл
+     * @return путь к копии в MinIO, null если копии еще нет
+     */
+    public String getThumbnailObjectName(Media media) {
+        return media.getDerivatives() == null ? null : media.getDerivatives().get(String.valueOf(thumbnailWidth));
+    }
+
+    /**
+     * Ставит в очередь все изображения без копий, включая исчерпавшие попытки
+     *
+     * @return количество поставленных в очередь изображений
+     */
+    @Transactional
+    public int backfill() {
+        int scheduled = mediaRepository.scheduleDerivativesBackfill(
+            MediaTypeEnum.IMAGE,
+            DerivativesStatusEnum.PENDING,
+            DerivativesStatusEnum.FAILED,
+            ZonedDateTime.now()
+        );
+        log.info("Поставлено в очередь на построение копий изображений: {}", scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Обработка изображений, чья очередь подошла: повторные попытки, backfill
+     * и изображения, не поместившиеся в пул при загрузке. Порция ограничена свободным местом в очереди пула.
+     */
+    @Scheduled(
+        fixedDelayString = "${app.media.derivatives.poll-interval:30000}",
+        initialDelayString = "${app.media.derivatives.poll-interval:30000}"
+    )
+    public void processDue() {
+        int capacity = Math.min(batchSize, mediaDerivativeExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> due = mediaRepository.findDueDerivatives(
+            DerivativesStatusEnum.PENDING,
+            ZonedDateTime.now(),
+            PageRequest.of(0, capacity)
+        );
+        for (Long mediaId : due) {
+            if (!submit(mediaId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Захватывает изображение и отправляет его в пул
+     *
+     * @return false, если очередь пула заполнена
+     */
+    private boolean submit(Long mediaId) {
+        ZonedDateTime now = ZonedDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> mediaRepository.claimDerivatives(
+            mediaId, DerivativesStatusEnum.PENDING, now, now.plus(lease)
+        ));
+        if (claimed == null || claimed == 0) {
+            return true;
+        }
+        try {
+            mediaDerivativeExecutor.execute(() -> process(mediaId));
+            return true;
+        } catch (TaskRejectedException e) {
+            // Изображение будет обработано повторно после окончания аренды
+            log.debug("Очередь построения копий заполнена, медиафайл {} отложен", mediaId);
+            return false;
+        }
+    }
+
+    private void process(Long mediaId) {
+        Media media = mediaRepository.findById(mediaId).orElse(null);
+        if (media == null || media.getDerivativesStatus() != DerivativesStatusEnum.PENDING) {
+            return;
+        }
+
+        Map<String, String> derivatives;
+        try {
+            derivatives = buildDerivatives(media);
+        } catch (Exception e) {
+            recordFailure(mediaId, e);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> mediaRepository.findById(mediaId).ifPresent(current -> {
+            current.setDerivatives(derivatives);
+            current.setDerivativesStatus(DerivativesStatusEnum.READY);
+            current.setDerivativesNextAttemptAt(null);
+        }));
+    }
+
+    /**
+     * Уменьшенные копии медиафайла: готовые копии того же содержимого либо построенные заново
+     */
+    private Map<String, String> buildDerivatives(Media media) throws IOException {
+        // Копии общего объекта уже могли быть построены для другого медиафайла
+        Map<String, String> ready = media.getBlobHash() == null ? null : mediaRepository
+            .findFirstByBlobHashAndDerivativesStatus(media.getBlobHash(), DerivativesStatusEnum.READY)
+            .map(Media::getDerivatives)
+            .orElse(null);
+        return ready != null ? ready : render(media.getUri());
+    }
+
+    private void recordFailure(Long mediaId, Exception error) {
+        transactionTemplate.executeWithoutResult(status -> mediaRepository.findById(mediaId).ifPresent(current -> {
+            int attempts = current.getDerivativesAttempts() + 1;
+            current.setDerivativesAttempts(attempts);
+            if (attempts >= maxAttempts) {
+                current.setDerivativesStatus(DerivativesStatusEnum.FAILED);
+                current.setDerivativesNextAttemptAt(null);
+                log.error("Не удалось построить копии изображения {} за {} попыток", mediaId, attempts, error);
+            } else {
+                current.setDerivativesNextAttemptAt(ZonedDateTime.now().plus(retryDelay.multipliedBy(1L << (attempts - 1))));
+                log.warn("Ошибка построения копий изображения {}, попытка {}: {}", mediaId, attempts, error.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Строит и сохраняет копии изображения
+     *
+     * @param objectName путь к оригиналу в MinIO
+     * @return ширина копии -> путь копии в MinIO
+     */
+    private Map<String, String> render(String objectName) throws IOException {
+        List<Integer> targetWidths = widths.stream().sorted(Comparator.reverseOrder()).toList();
+        BufferedImage source = toRgb(decode(objectName, targetWidths.get(0)));
+
+        Map<String, String> derivatives = new LinkedHashMap<>();
+        BufferedImage current = source;
+        // От большей копии к меньшей: каждая следующая строится из предыдущей, а не из оригинала
+        for (int width : targetWidths) {
+            current = resize(current, Math.min(width, source.getWidth()));
+            String derivativeName = minioService.derivativeObjectName(objectName, width);
+            minioService.putFile(derivativeName, encodeJpeg(current), DERIVATIVE_CONTENT_TYPE);
+            derivatives.put(String.valueOf(width), derivativeName);
+        }
+        return derivatives;
+    }
+
+    /**
+     * Декодирует изображение с прореживанием: большие оригиналы не разворачиваются в память целиком,
+     * остается не меньше двукратного запаса ширины для качественного уменьшения.
+     */
+    private BufferedImage decode(String objectName, int maxWidth) throws IOException {
+        try (InputStream in = minioService.getFile(objectName);
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Формат изображения не поддерживается: " + objectName);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int subsampling = Math.max(1, reader.getWidth(0) / (2 * maxWidth));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Приводит изображение к RGB без прозрачности, прозрачные области заливаются белым
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Уменьшение последовательными шагами в два раза: билинейная интерполяция
+     * за один большой шаг теряет детали и дает ступенчатые края
+     */
+    private static BufferedImage resize(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        while (current.getWidth() > targetWidth) {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(1, (int) Math.round((double) current.getHeight() * width / current.getWidth()));
+
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        }
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
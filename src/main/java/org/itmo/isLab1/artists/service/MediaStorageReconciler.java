@@ -0,0 +1,230 @@
+package org.itmo.isLab1.artists.service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.itmo.isLab1.artists.dto.StorageReconcileReportDto;
+import org.itmo.isLab1.artists.repository.MediaBlobRepository;
+import org.itmo.isLab1.artists.repository.MediaRepository;
+import org.itmo.isLab1.common.errors.PolicyViolationError;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.itmo.isLab1.common.storage.ListedObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Сверка объектов в MinIO с медиафайлами в БД и удаление объектов без ссылок.
+ * Такие объекты остаются после каскадного удаления работ и профилей художников
+ * и после неудачных откатов загрузки.
+ * <p>
+ * Листинг читается потоком и обрабатывается порциями: для каждой порции одним запросом
+ * загружаются пути, известные работам из порции, поэтому память не зависит от размера бакета.
+ * Между порциями выдерживается пауза, чтобы сверка не нагружала хранилище и БД.
+ * Плановая сверка выполняется в своем потоке mediaReconcileExecutor, а не в пуле планировщика.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaStorageReconciler {
+
+    private static final Pattern WORK_OBJECT = Pattern.compile("^artist-\\d+/work-(\\d+)/[^/]+$");
+    private static final Pattern BLOB_OBJECT = Pattern.compile("^blobs/[0-9a-f]{2}/([0-9a-f]{64})(_w\\d+\\.jpg)?$");
+    private static final List<String> ROOT_PREFIXES = List.of("artist-", "blobs/");
+    private static final int ORPHAN_SAMPLE_SIZE = 100;
+
+    private final MinioService minioService;
+    private final MediaRepository mediaRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final ThreadPoolTaskExecutor mediaReconcileExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.media.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.media.reconcile.batch-pause:200ms}")
+    private Duration batchPause;
+
+    @Value("${app.media.reconcile.grace-period:24h}")
+    private Duration gracePeriod;
+
+    @Value("${app.media.reconcile.dry-run:false}")
+    private boolean scheduledDryRun;
+
+    @Scheduled(cron = "${app.media.reconcile.cron:0 30 4 * * *}")
+    public void reconcileScheduled() {
+        try {
+            mediaReconcileExecutor.execute(() -> {
+                try {
+                    StorageReconcileReportDto report = reconcile(null, scheduledDryRun);
+                    log.info("Сверка хранилища завершена: {}", report);
+                } catch (PolicyViolationError e) {
+                    log.info("Сверка хранилища пропущена: {}", e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.info("Сверка хранилища пропущена: предыдущая плановая сверка еще выполняется");
+        }
+    }
+
+    /**
+     * Сверяет объекты хранилища с медиафайлами
+     *
+     * @param prefix префикс проверяемых путей, null - все медиафайлы
+     * @param dryRun только найти объекты без ссылок, не удаляя их
+     * @return отчет о сверке
+     * @throws IllegalArgumentException если префикс не относится к медиафайлам
+     * @throws PolicyViolationError если сверка уже выполняется
+     */
+    public StorageReconcileReportDto reconcile(String prefix, boolean dryRun) {
+        List<String> prefixes = prefix == null ? ROOT_PREFIXES : List.of(prefix);
+        if (!prefixes.stream().allMatch(p -> ROOT_PREFIXES.stream().anyMatch(p::startsWith))) {
+            throw new IllegalArgumentException("Префикс должен начинаться с " + String.join(" или ", ROOT_PREFIXES));
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new PolicyViolationError("Сверка хранилища уже выполняется");
+        }
+
+        try {
+            Report report = new Report(dryRun, ZonedDateTime.now().minus(gracePeriod));
+            for (String root : prefixes) {
+                try (Stream<ListedObject> objects = minioService.listFiles(root)) {
+                    Iterator<ListedObject> iterator = objects.iterator();
+                    List<ListedObject> batch = new ArrayList<>(batchSize);
+                    while (iterator.hasNext()) {
+                        batch.add(iterator.next());
+                        if (batch.size() == batchSize) {
+                            processBatch(batch, report);
+                            batch.clear();
+                            pause();
+                        }
+                    }
+                    processBatch(batch, report);
+                }
+            }
+            return report.toDto();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void processBatch(List<ListedObject> batch, Report report) {
+        report.scanned += batch.size();
+
+        List<String> workObjects = new ArrayList<>();
+        Set<Long> workIds = new HashSet<>();
+        List<String> blobObjects = new ArrayList<>();
+        Set<String> hashes = new HashSet<>();
+
+        for (ListedObject object : batch) {
+            if (object.lastModified().isAfter(report.threshold)) {
+                report.skippedRecent++;
+                continue;
+            }
+            Matcher work = WORK_OBJECT.matcher(object.objectName());
+            Matcher blob = BLOB_OBJECT.matcher(object.objectName());
+            if (work.matches()) {
+                workObjects.add(object.objectName());
+                workIds.add(Long.parseLong(work.group(1)));
+            } else if (blob.matches()) {
+                blobObjects.add(object.objectName());
+                hashes.add(blob.group(1));
+            } else {
+                report.unrecognized++;
+            }
+        }
+
+        List<String> orphans = new ArrayList<>();
+        if (!workIds.isEmpty()) {
+            Set<String> known = new HashSet<>(mediaRepository.findObjectNamesByWorkIds(toSqlArray(workIds)));
+            workObjects.stream().filter(name -> !known.contains(name)).forEach(orphans::add);
+        }
+        if (!hashes.isEmpty()) {
+            // Копии общего объекта живут столько же, сколько его запись
+            Set<String> known = new HashSet<>(mediaBlobRepository.findExistingHashes(toSqlArray(hashes)));
+            blobObjects.stream()
+                .filter(name -> {
+                    Matcher blob = BLOB_OBJECT.matcher(name);
+                    return blob.matches() && !known.contains(blob.group(1));
+                })
+                .forEach(orphans::add);
+        }
+        if (orphans.isEmpty()) {
+            return;
+        }
+
+        report.orphans += orphans.size();
+        for (String orphan : orphans) {
+            if (report.sample.size() < ORPHAN_SAMPLE_SIZE) {
+                report.sample.add(orphan);
+            }
+        }
+        if (!report.dryRun) {
+            int failed = minioService.removeFiles(orphans).size();
+            report.removed += orphans.size() - failed;
+            report.failed += failed;
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Сверка хранилища прервана", e);
+        }
+    }
+
+    private static String toSqlArray(Set<?> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    /**
+     * Счетчики одного запуска сверки
+     */
+    private static final class Report {
+        private final boolean dryRun;
+        private final ZonedDateTime threshold;
+        private final List<String> sample = new ArrayList<>();
+        private long scanned;
+        private long skippedRecent;
+        private long unrecognized;
+        private long orphans;
+        private long removed;
+        private long failed;
+
+        Report(boolean dryRun, ZonedDateTime threshold) {
+            this.dryRun = dryRun;
+            this.threshold = threshold;
+        }
+
+        StorageReconcileReportDto toDto() {
+            return StorageReconcileReportDto.builder()
+                .dryRun(dryRun)
+                .scanned(scanned)
+                .skippedRecent(skippedRecent)
+                .unrecognized(unrecognized)
+                .orphans(orphans)
+                .removed(removed)
+                .failed(failed)
+                .orphanSample(sample)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.itmo.isLab1.artists.service;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.itmo.isLab1.artists.entity.MediaUpload;
+import org.itmo.isLab1.artists.repository.MediaUploadRepository;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Периодическая отмена брошенных загрузок по частям.
+ * Незавершенная multipart загрузка занимает место в хранилище, пока ее явно не отменят,
+ * поэтому истекшие загрузки отменяются в MinIO и удаляются из БД.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MediaUploadSweeper {
+
+    private final MediaUploadRepository mediaUploadRepository;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(
+        fixedDelayString = "${app.media.multipart.sweep-interval:900000}",
+        initialDelayString = "${app.media.multipart.sweep-interval:900000}"
+    )
+    public void sweep() {
+        int aborted = 0;
+        List<MediaUpload> expired;
+        do {
+            expired = mediaUploadRepository.findTop100ByExpiresAtBeforeOrderByExpiresAt(ZonedDateTime.now());
+            for (MediaUpload upload : expired) {
+                try {
+                    minioService.abortMultipartUpload(upload.getObjectName(), upload.getUploadId());
+                } catch (RuntimeException e) {
+                    // Запись остается, отмена повторится при следующем запуске
+                    log.warn("Не удалось отменить загрузку {}: {}", upload.getObjectName(), e.getMessage());
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(
+                    status -> mediaUploadRepository.deleteByIdReturningCount(upload.getId())
+                );
+                aborted++;
+            }
+        } while (expired.size() == 100);
+
+        if (aborted > 0) {
+            log.info("Отменено брошенных загрузок по частям: {}", aborted);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.itmo.isLab1.artists.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.itmo.isLab1.artists.entity.StorageDeletion;
+import org.itmo.isLab1.artists.repository.StorageDeletionRepository;
+import org.itmo.isLab1.common.minIO.MinioService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Разбор очереди удаления объектов из хранилища.
+ * Объекты удаляются пачками одним запросом к хранилищу, отмена загрузок выполняется по одной.
+ * Неудавшиеся удаления остаются в очереди и повторяются с экспоненциальной задержкой.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageDeletionWorker {
+
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.media.deletions.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.media.deletions.retry-delay:1m}")
+    private Duration retryDelay;
+
+    @Value("${app.media.deletions.max-retry-delay:6h}")
+    private Duration maxRetryDelay;
+
+    @Scheduled(
+        fixedDelayString = "${app.media.deletions.poll-interval:10000}",
+        initialDelayString = "${app.media.deletions.poll-interval:10000}"
+    )
+    public void drain() {
+        int removed = 0;
+        List<StorageDeletion> batch;
+        do {
+            batch = transactionTemplate.execute(status -> storageDeletionRepository.claimDue(
+                batchSize, retryDelay.toSeconds(), maxRetryDelay.toSeconds()
+            ));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            removed += process(batch);
+        } while (batch.size() == batchSize);
+
+        if (removed > 0) {
+            log.info("Удалено объектов из хранилища по очереди: {}", removed);
+        }
+    }
+
+    /**
+     * Удаление захваченной порции
+     *
+     * @return количество обработанных строк
+     */
+    private int process(List<StorageDeletion> batch) {
+        List<String> objectNames = new ArrayList<>();
+        List<Long> done = new ArrayList<>();
+        for (StorageDeletion deletion : batch) {
+            if (deletion.getUploadId() == null) {
+                objectNames.add(deletion.getObjectName());
+                continue;
+            }
+            try {
+                minioService.abortMultipartUpload(deletion.getObjectName(), deletion.getUploadId());
+                done.add(deletion.getId());
+            } catch (RuntimeException e) {
+                log.warn(
+                    "Не удалось отменить загрузку {} (попытка {}), повтор после {}: {}",
+                    deletion.getObjectName(), deletion.getAttempts(), deletion.getNextAttemptAt(), e.getMessage()
+                );
+            }
+        }
+
+        Set<String> failed;
+        try {
+            // Ошибки отдельных объектов хранилище уже записало в лог
+            failed = new HashSet<>(minioService.removeFiles(objectNames));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось удалить порцию из {} объектов, повтор после задержки: {}", objectNames.size(), e.getMessage());
+            failed = new HashSet<>(objectNames);
+        }
+        for (StorageDeletion deletion : batch) {
+            if (deletion.getUploadId() == null && !failed.contains(deletion.getObjectName())) {
+                done.add(deletion.getId());
+            }
+        }
+
+        if (!done.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> storageDeletionRepository.deleteAllByIdInBatch(done));
+        }
+        return done.size();
+    }
+}
@@ -1,5 +1,6 @@
 package org.itmo.isLab1.auth;
 
+import io.jsonwebtoken.JwtException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
@@ -17,7 +18,6 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import org.itmo.isLab1.users.Role;
 import org.itmo.isLab1.users.User;
 
 import java.io.IOException;
@@ -44,37 +44,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Обрезаем префикс и получаем имя пользователя из токена
+        // Обрезаем префикс и разбираем токен один раз: подпись, срок действия и все поля
         var jwt = authHeader.substring(BEARER_PREFIX.length());
-        var username = jwtService.extractUsername(jwt); // Извлекаем имя пользователя
-        var userId = jwtService.extractId(jwt); // Извлекаем ID пользователя
-        var role = jwtService.extractRole(jwt); // Извлекаем роль
+        JwtPrincipal principal;
+        try {
+            principal = jwtService.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Невалидный токен - продолжаем как анонимный пользователь
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (StringUtils.isNotEmpty(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (StringUtils.isNotEmpty(principal.username()) && SecurityContextHolder.getContext().getAuthentication() == null) {
             // Создаем объект UserDetails без запроса к БД
-            // Можем так сделать, так как проверяем валидность токена, а без знания секрета нельзя создать валидный токен
-            // Возможно, лучше проверять пользователя в БД 
+            // Можем так сделать, так как подпись токена проверена, а без знания секрета нельзя создать валидный токен
             UserDetails userDetails = new User(
-                userId, username, 
+                principal.id(), principal.username(), 
                 null, null, 
-                null, Role.valueOf(role), 
+                null, principal.role(), 
                 null, null, null
             );
 
-            // Если токен валиден, то аутентифицируем пользователя
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                SecurityContext context = SecurityContextHolder.createEmptyContext();
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities()
-                );
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+            );
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                context.setAuthentication(authToken);
-                SecurityContextHolder.setContext(context);
-            }
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            context.setAuthentication(authToken);
+            SecurityContextHolder.setContext(context);
         }
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,23 @@
+package org.itmo.isLab1.auth;
+
+import java.time.Instant;
+
+import org.itmo.isLab1.users.Role;
+
+/**
+ * Неизменяемый результат разбора проверенного JWT токена
+ *
+ * @param id        id пользователя
+ * @param username  имя пользователя
+ * @param role      роль пользователя
+ * @param expiresAt момент истечения токена
+ */
+public record JwtPrincipal(Long id, String username, Role role, Instant expiresAt) {
+
+    /**
+     * Проверка токена на просроченность
+     */
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
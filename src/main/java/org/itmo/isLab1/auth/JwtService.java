@@ -1,10 +1,14 @@
 package org.itmo.isLab1.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 
+import org.itmo.isLab1.users.Role;
 import org.itmo.isLab1.users.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,11 +17,11 @@ import org.springframework.stereotype.Service;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 import javax.crypto.SecretKey;
 
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
     @Value("${app.jwt.token.secret}")
     private String jwtSigningKey;
@@ -25,32 +29,33 @@ public class JwtService {
     @Value("${app.jwt.token.expiration}")
     private String jwtExpirationTime;
 
-    /**
-     * Извлечение имени пользователя из токена
-     */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    private final JwtTokenCache tokenCache;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
 
     /**
-     * Извлечение id пользователя из токена
+     * Однократное построение ключа и парсера, оба потокобезопасны
      */
-    public Long extractId(String token) {
-        return extractClaim(token, claims -> {
-            Object id = claims.get("id");
-            if (id == null) {
-                return null;
-            }
-            // Number - родительский класс для Integer, Long, Double и т.д.
-            return ((Number) id).longValue();
-        });
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSigningKey));
+        jwtParser = Jwts.parser()
+            .verifyWith(signingKey)
+            .build();
     }
 
     /**
-     * Извлечение роли пользователя из токена
+     * Проверка токена и извлечение данных пользователя.
+     * Подпись проверяется один раз, повторные запросы с тем же токеном обслуживаются из кеша.
+     *
+     * @param token токен
+     * @return данные пользователя из токена
+     * @throws io.jsonwebtoken.JwtException если токен невалиден или просрочен
+     * @throws IllegalArgumentException если токен пуст или не содержит обязательных полей
      */
-    public String extractRole(String token) {
-        return extractClaim(token, claims -> (String) claims.get("role"));
+    public JwtPrincipal parseToken(String token) {
+        return tokenCache.get(token, this::parseClaims);
     }
 
     /**
@@ -66,25 +71,6 @@ public class JwtService {
         return generateToken(claims, userDetails);
     }
 
-    /**
-     * Проверка токена на валидность
-     */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return !isTokenExpired(token) && (username.equals(userDetails.getUsername()));
-    }
-
-    /**
-     * Извлечение данных из токена
-     *
-     * @param token           токен
-     * @param claimsResolvers функция извлечения данных
-     */
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolvers.apply(claims);
-    }
-
     /**
      * Генерация токена
      *
@@ -97,40 +83,28 @@ public class JwtService {
             .subject(userDetails.getUsername())
             .issuedAt(new Date(System.currentTimeMillis()))
             .expiration(new Date(System.currentTimeMillis() + Long.parseLong(jwtExpirationTime)))
-            .signWith(getSigningKey(), Jwts.SIG.HS256)
+            .signWith(signingKey, Jwts.SIG.HS256)
             .compact();
     }
 
     /**
-     * Проверка токена на просроченность
+     * Полная проверка подписи и извлечение всех данных из токена за один разбор
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Извлечение даты истечения токена
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    /**
-     * Извлечение всех данных из токена
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-    }
+    private JwtPrincipal parseClaims(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        // Number - родительский класс для Integer, Long, Double и т.д.
+        Object id = claims.get("id");
+        Object role = claims.get("role");
+        if (claims.getSubject() == null || role == null || claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Токен не содержит обязательных полей");
+        }
 
-    /**
-     * Получение ключа для подписи токена
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return new JwtPrincipal(
+            id == null ? null : ((Number) id).longValue(),
+            claims.getSubject(),
+            Role.valueOf((String) role),
+            claims.getExpiration().toInstant()
+        );
     }
 }
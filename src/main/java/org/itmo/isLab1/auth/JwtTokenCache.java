@@ -0,0 +1,81 @@
+package org.itmo.isLab1.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Ограниченный кеш уже проверенных JWT токенов.
+ * Ключом служит SHA-256 от токена, поэтому сами токены в памяти не хранятся.
+ * Запись вытесняется не позже момента истечения токена.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final Cache<String, JwtPrincipal> cache;
+
+    public JwtTokenCache(@Value("${app.jwt.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, JwtPrincipal>() {
+                @Override
+                public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+                    long millis = value.expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Получение данных токена из кеша либо их вычисление и сохранение
+     *
+     * @param token  токен
+     * @param parser функция полной проверки токена, вызывается только при промахе
+     * @return данные проверенного токена
+     */
+    public JwtPrincipal get(String token, Function<String, JwtPrincipal> parser) {
+        String key = digest(token);
+        JwtPrincipal principal = cache.getIfPresent(key);
+        if (principal != null && !principal.isExpired()) {
+            return principal;
+        }
+
+        // Исключения парсера пробрасываются наружу, невалидные токены в кеш не попадают
+        principal = parser.apply(token);
+        if (!principal.isExpired()) {
+            cache.put(key, principal);
+        }
+        return principal;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
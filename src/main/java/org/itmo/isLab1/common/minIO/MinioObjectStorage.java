@@ -0,0 +1,309 @@
+package org.itmo.isLab1.common.minIO;
+
+import io.minio.*;
+import io.minio.http.Method;
+import jakarta.annotation.PostConstruct;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.storage.ListedObject;
+import org.itmo.isLab1.common.storage.MultipartObjectStorage;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.itmo.isLab1.common.storage.UploadedPart;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Хранилище объектов в бакете MinIO
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "minio", matchIfMissing = true)
+public class MinioObjectStorage implements MultipartObjectStorage {
+
+    private final MinioClient minioClient;
+    private final MultipartMinioClient multipartMinioClient;
+
+    @Value("${spring.minio.bucket-name}")
+    private String bucketName;
+
+    @Override
+    public void put(String objectName, InputStream content, long size, String contentType) {
+        try {
+            ObjectWriteResponse response = minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .stream(content, size, -1)
+                            .contentType(contentType)
+                            .build()
+            );
+            log.debug("Файл сохранен в MinIO: bucket={}, object={}, etag={}", bucketName, objectName, response.etag());
+        } catch (Exception e) {
+            log.error("Ошибка при загрузке файла в MinIO", e);
+            throw new RuntimeException("Ошибка при загрузке файла", e);
+        }
+    }
+
+    @Override
+    public InputStream get(String objectName) {
+        return get(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build());
+    }
+
+    @Override
+    public InputStream get(String objectName, long offset, long length) {
+        return get(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(offset)
+                .length(length)
+                .build());
+    }
+
+    private InputStream get(GetObjectArgs args) {
+        try {
+            return minioClient.getObject(args);
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("Файл не найден в хранилище: " + args.object());
+            }
+            throw new RuntimeException("Ошибка при чтении файла: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка при чтении файла: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StoredObject stat(String objectName) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build()
+            );
+            return new StoredObject(objectName, stat.size(), stat.contentType(), stat.etag(), stat.lastModified());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+            }
+            throw new RuntimeException("Ошибка получения информации о файле: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка получения информации о файле: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String objectName) {
+        try {
+            minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .build()
+            );
+            log.info("Файл успешно удален из MinIO: bucket={}, object={}", bucketName, objectName);
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+            }
+            log.error("Ошибка при удалении файла из MinIO: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при удалении файла: " + e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Ошибка при удалении файла из MinIO: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при удалении файла: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(List<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return List.of();
+        }
+
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .objects(objectNames.stream().map(DeleteObject::new).toList())
+                        .build()
+        );
+
+        // Запросы на удаление отправляются лениво при обходе результата, в нем только ошибки
+        List<String> failed = new ArrayList<>();
+        try {
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                log.warn("Не удалось удалить файл {}: {}", error.objectName(), error.message());
+                failed.add(error.objectName());
+            }
+        } catch (Exception e) {
+            log.error("Ошибка при удалении файлов из MinIO: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при удалении файлов: " + e.getMessage(), e);
+        }
+        log.info("Удалено файлов из MinIO: {}", objectNames.size() - failed.size());
+        return failed;
+    }
+
+    /**
+     * Постраничный обход в лексикографическом порядке,
+     * страницы запрашиваются у хранилища по мере чтения потока
+     */
+    @Override
+    public Stream<ListedObject> list(String prefix) {
+        Iterable<Result<Item>> results = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .prefix(prefix)
+                        .recursive(true)
+                        .build()
+        );
+
+        return StreamSupport.stream(results.spliterator(), false)
+                .map(result -> {
+                    try {
+                        Item item = result.get();
+                        return new ListedObject(item.objectName(), item.size(), item.lastModified());
+                    } catch (Exception e) {
+                        throw new RuntimeException("Ошибка получения списка файлов: " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    @Override
+    public String presignGet(String objectName, Duration expiry) {
+        return presign(Method.GET, objectName, Map.of(), expiry);
+    }
+
+    @Override
+    public String presignPut(String objectName, Duration expiry) {
+        return presign(Method.PUT, objectName, Map.of(), expiry);
+    }
+
+    @Override
+    public String createMultipartUpload(String objectName, String contentType) {
+        try {
+            String uploadId = multipartMinioClient.createMultipartUpload(bucketName, objectName, contentType);
+            log.info("Начата multipart загрузка: bucket={}, object={}, uploadId={}", bucketName, objectName, uploadId);
+            return uploadId;
+        } catch (Exception e) {
+            log.error("Ошибка при создании multipart загрузки: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при создании загрузки: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String presignPart(String objectName, String uploadId, int partNumber, Duration expiry) {
+        return presign(Method.PUT, objectName, Map.of(
+                "uploadId", uploadId,
+                "partNumber", String.valueOf(partNumber)
+        ), expiry);
+    }
+
+    @Override
+    public List<UploadedPart> listParts(String objectName, String uploadId) {
+        try {
+            return multipartMinioClient.listParts(bucketName, objectName, uploadId).stream()
+                    .map(part -> new UploadedPart(part.partNumber(), part.etag(), part.partSize()))
+                    .toList();
+        } catch (ErrorResponseException e) {
+            if ("NoSuchUpload".equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("Загрузка не найдена в хранилище: " + objectName);
+            }
+            throw new RuntimeException("Ошибка получения частей загрузки: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка получения частей загрузки: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String objectName, String uploadId, List<UploadedPart> parts) {
+        try {
+            Part[] completed = parts.stream()
+                    .map(part -> new Part(part.partNumber(), part.etag()))
+                    .toArray(Part[]::new);
+            multipartMinioClient.completeMultipartUpload(bucketName, objectName, uploadId, completed);
+            log.info("Завершена multipart загрузка: bucket={}, object={}, parts={}", bucketName, objectName, parts.size());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchUpload".equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("Загрузка не найдена в хранилище: " + objectName);
+            }
+            log.error("Ошибка при завершении multipart загрузки: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при завершении загрузки: " + e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Ошибка при завершении multipart загрузки: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при завершении загрузки: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectName, String uploadId) {
+        try {
+            multipartMinioClient.abortMultipartUpload(bucketName, objectName, uploadId);
+            log.info("Отменена multipart загрузка: bucket={}, object={}", bucketName, objectName);
+        } catch (ErrorResponseException e) {
+            if ("NoSuchUpload".equals(e.errorResponse().code())) {
+                return;
+            }
+            throw new RuntimeException("Ошибка при отмене загрузки: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка при отмене загрузки: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Подпись вычисляется локально, обращения к хранилищу нет
+     */
+    private String presign(Method method, String objectName, Map<String, String> queryParams, Duration expiry) {
+        try {
+            return minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .extraQueryParams(queryParams)
+                            .expiry((int) expiry.toSeconds(), TimeUnit.SECONDS)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Ошибка при генерации presigned URL: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при генерации URL для доступа к файлу: " + e.getMessage(), e);
+        }
+    }
+
+    @PostConstruct
+    public void ensureBucketExists() {
+        try {
+            boolean exists = minioClient.bucketExists(
+                    BucketExistsArgs.builder().bucket(bucketName).build()
+            );
+            if (!exists) {
+                minioClient.makeBucket(
+                        MakeBucketArgs.builder().bucket(bucketName).build()
+                );
+                log.info("Бакет '{}' создан", bucketName);
+            }
+        } catch (Exception e) {
+            log.error("Не удалось проверить/создать бакет '{}'", bucketName, e);
+            throw new RuntimeException(e);
+        }
+    }
+}
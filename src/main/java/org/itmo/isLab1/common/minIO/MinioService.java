@@ -1,153 +1,313 @@
 package org.itmo.isLab1.common.minIO;
 
-import io.minio.*;
-import io.minio.http.Method;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
-import io.minio.errors.ErrorResponseException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.itmo.isLab1.common.errors.PolicyViolationError;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.storage.ListedObject;
+import org.itmo.isLab1.common.storage.MultipartObjectStorage;
+import org.itmo.isLab1.common.storage.ObjectStorage;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.itmo.isLab1.common.storage.UploadedPart;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
- * Сервис для работы с файловым хранилищем MinIO
+ * Сервис для работы с файловым хранилищем медиафайлов.
+ * Операции выполняет {@link ObjectStorage}, выбранный свойством app.storage.type,
+ * здесь остаются кеш подписанных URL и правила именования объектов.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MinioService {
 
-    private final MinioClient minioClient;
+    private final ObjectStorage storage;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.minio.presigned-url.expiry:86400s}")
+    private Duration presignedUrlExpiry;
+
+    @Value("${spring.minio.presigned-url.cache.safety-margin:1h}")
+    private Duration presignedUrlSafetyMargin;
+
+    @Value("${spring.minio.presigned-url.cache.max-size:10000}")
+    private long presignedUrlCacheSize;
 
-    @Value("${spring.minio.bucket-name}")
-    private String bucketName;
+    @Value("${spring.minio.upload-url.expiry:15m}")
+    private Duration uploadUrlExpiry;
+
+    /**
+     * Подписанные URL по имени объекта. Запись вытесняется раньше истечения URL на запас,
+     * чтобы клиент успел воспользоваться выданной ссылкой.
+     */
+    private Cache<String, String> presignedUrls;
 
     /**
-     * Загружает файл в MinIO
+     * Загружает файл в хранилище под указанным путем
      *
      * @param file файл для загрузки
-     * @param artistId идентификатор художника
-     * @param workId идентификатор работы
-     * @return путь к загруженному файлу
+     * @param objectName путь к файлу в хранилище
      * @throws RuntimeException если произошла ошибка при загрузке
      */
-    public String uploadFile(MultipartFile file, Long artistId, Long workId) {
-        String objectName = String.format(
-                "artist-%d/work-%d/%s",
-                artistId,
-                workId,
-                generateFileName(file.getOriginalFilename())
-        );
-
+    public void uploadFile(MultipartFile file, String objectName) {
         try (InputStream inputStream = file.getInputStream()) {
-
-            ObjectWriteResponse response = minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(objectName)
-                            .stream(inputStream, file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build()
-            );
-
-            log.info(
-                    "Файл успешно загружен в MinIO: bucket={}, object={}, etag={}",
-                    bucketName,
-                    objectName,
-                    response.etag()
-            );
-
-            return objectName;
-
-        } catch (Exception e) {
-            log.error("Ошибка при загрузке файла в MinIO", e);
+            storage.put(objectName, inputStream, file.getSize(), file.getContentType());
+            log.info("Файл успешно загружен в хранилище: object={}", objectName);
+        } catch (IOException e) {
+            log.error("Ошибка при чтении загружаемого файла", e);
             throw new RuntimeException("Ошибка при загрузке файла", e);
         }
     }
 
     /**
-     * Удаляет файл из MinIO
+     * Сохраняет содержимое в хранилище под указанным путем, существующий объект перезаписывается
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param content содержимое файла
+     * @param contentType MIME тип файла
+     * @throws RuntimeException если произошла ошибка при загрузке
+     */
+    public void putFile(String objectName, byte[] content, String contentType) {
+        storage.put(objectName, new ByteArrayInputStream(content), content.length, contentType);
+    }
+
+    /**
+     * Открывает файл из хранилища для чтения. Поток должен быть закрыт вызывающим кодом.
+     *
+     * @param objectName путь к файлу в хранилище
+     * @return содержимое файла
+     * @throws ResourceNotFoundException если файл не найден
+     * @throws RuntimeException если произошла ошибка при чтении
+     */
+    public InputStream getFile(String objectName) {
+        return storage.get(objectName);
+    }
+
+    /**
+     * Открывает часть файла из хранилища для чтения. Поток должен быть закрыт вызывающим кодом.
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param offset смещение первого байта
+     * @param length количество байт
+     * @return содержимое части файла
+     * @throws ResourceNotFoundException если файл не найден
+     * @throws RuntimeException если произошла ошибка при чтении
+     */
+    public InputStream getFile(String objectName, long offset, long length) {
+        return storage.get(objectName, offset, length);
+    }
+
+    /**
+     * Удаляет файл из хранилища
      *
-     * @param objectName путь к файлу в MinIO
+     * @param objectName путь к файлу в хранилище
      * @throws ResourceNotFoundException если файл не найден
      * @throws RuntimeException если произошла ошибка при удалении
      */
     public void deleteFile(String objectName) {
-        try {
-            minioClient.removeObject(
-                RemoveObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(objectName)
-                       .build()
-            );
-            log.info("Файл успешно удален из MinIO: bucket={}, object={}", bucketName, objectName);
-            
-        } catch (ErrorResponseException e) {
-            if ("NoSuchKey".equals(e.errorResponse().code())) {
-                throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
-            }
-            log.error("Ошибка при удалении файла из MinIO: {}", e.getMessage(), e);
-            throw new RuntimeException("Ошибка при удалении файла: " + e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Ошибка при удалении файла из MinIO: {}", e.getMessage(), e);
-            throw new RuntimeException("Ошибка при удалении файла: " + e.getMessage(), e);
-        }
+        presignedUrls.invalidate(objectName);
+        storage.delete(objectName);
+    }
+
+    /**
+     * Удаляет файлы из хранилища пачкой. Отсутствующие файлы ошибкой не считаются.
+     *
+     * @param objectNames пути к файлам в хранилище
+     * @return пути файлов, которые удалить не удалось
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public List<String> removeFiles(List<String> objectNames) {
+        objectNames.forEach(presignedUrls::invalidate);
+        return storage.deleteAll(objectNames);
     }
 
     /**
-     * Генерирует предварительно подписанный URL для доступа к файлу
+     * Обход объектов с префиксом. Поток читается лениво и должен быть закрыт вызывающим кодом,
+     * порядок объектов зависит от хранилища.
      *
-     * @param objectName путь к файлу в MinIO
-     * @param expiry время жизни URL в секундах
+     * @param prefix префикс пути
+     * @return поток объектов
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public Stream<ListedObject> listFiles(String prefix) {
+        return storage.list(prefix);
+    }
+
+    /**
+     * Возвращает предварительно подписанный URL для доступа к файлу.
+     * Существование объекта не проверяется: имя объекта берется из записи медиафайла в БД.
+     * Подпись вычисляется локально и кешируется, поэтому обращения к хранилищу нет.
+     *
+     * @param objectName путь к файлу в хранилище
      * @return предварительно подписанный URL
      * @throws RuntimeException если произошла ошибка при генерации URL
      */
     public String generatePresignedUrl(String objectName) {
-        ensureObjectExists(objectName);
-
-        try {
-            GetPresignedObjectUrlArgs args = GetPresignedObjectUrlArgs.builder()
-                    .method(Method.GET)
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .expiry(86400, TimeUnit.SECONDS)
-                    .build();
-            
-            String url = minioClient.getPresignedObjectUrl(args);
-            
-            log.debug("Сгенерирован presigned URL для объекта: {}", objectName);
-            
-            return url;
-            
-        } catch (Exception e) {
-            log.error("Ошибка при генерации presigned URL: {}", e.getMessage(), e);
-            throw new RuntimeException("Ошибка при генерации URL для доступа к файлу: " + e.getMessage(), e);
-        }
+        return presignedUrls.get(objectName, name -> storage.presignGet(name, presignedUrlExpiry));
     }
 
-    private void ensureObjectExists(String objectName) {
-        try {
-            minioClient.statObject(
-                    StatObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(objectName)
-                            .build()
-            );
-        } catch (ErrorResponseException e) {
-            if ("NoSuchKey".equals(e.errorResponse().code())) {
-                throw new ResourceNotFoundException("Файл не найден: " + objectName);
-            }
-            throw new RuntimeException("Ошибка проверки существования файла", e);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка проверки существования файла", e);
+    /**
+     * Генерирует путь для нового медиафайла работы
+     *
+     * @param artistId идентификатор художника
+     * @param workId идентификатор работы
+     * @param originalFileName оригинальное имя файла, из него берется расширение
+     * @return путь к файлу в хранилище
+     */
+    public String generateObjectName(Long artistId, Long workId, String originalFileName) {
+        return workObjectPrefix(artistId, workId) + generateFileName(originalFileName);
+    }
+
+    /**
+     * Путь объекта с содержимым, общим для всех медиафайлов с тем же хешем
+     *
+     * @param hash SHA-256 содержимого в шестнадцатеричном виде
+     * @return путь в хранилище
+     */
+    public String blobObjectName(String hash) {
+        return String.format("blobs/%s/%s", hash.substring(0, 2), hash);
+    }
+
+    /**
+     * Путь уменьшенной копии изображения: рядом с оригиналом, с шириной в имени
+     *
+     * @param objectName путь к оригиналу в хранилище
+     * @param width ширина копии в пикселях
+     * @return путь к копии в хранилище
+     */
+    public String derivativeObjectName(String objectName, int width) {
+        int extension = objectName.lastIndexOf('.');
+        String base = extension > objectName.lastIndexOf('/') ? objectName.substring(0, extension) : objectName;
+        return base + "_w" + width + ".jpg";
+    }
+
+    /**
+     * Префикс путей медиафайлов работы
+     *
+     * @param artistId идентификатор художника
+     * @param workId идентификатор работы
+     * @return префикс пути в хранилище
+     */
+    public String workObjectPrefix(Long artistId, Long workId) {
+        return String.format("artist-%d/work-%d/", artistId, workId);
+    }
+
+    /**
+     * Генерирует предварительно подписанный URL для загрузки файла клиентом напрямую в хранилище
+     *
+     * @param objectName путь к файлу в хранилище
+     * @return URL для запроса PUT
+     * @throws RuntimeException если произошла ошибка при генерации URL
+     */
+    public String generatePresignedUploadUrl(String objectName) {
+        return storage.presignPut(objectName, uploadUrlExpiry);
+    }
+
+    /**
+     * Начинает multipart загрузку объекта
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param contentType MIME тип, с которым будет сохранен объект
+     * @return ID загрузки в хранилище
+     * @throws PolicyViolationError если хранилище не поддерживает загрузку по частям
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public String createMultipartUpload(String objectName, String contentType) {
+        return multipartStorage().createMultipartUpload(objectName, contentType);
+    }
+
+    /**
+     * Генерирует предварительно подписанный URL для загрузки одной части клиентом
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param uploadId ID загрузки в хранилище
+     * @param partNumber номер части, начиная с 1
+     * @return URL для запроса PUT
+     * @throws RuntimeException если произошла ошибка при генерации URL
+     */
+    public String generatePresignedPartUrl(String objectName, String uploadId, int partNumber) {
+        return multipartStorage().presignPart(objectName, uploadId, partNumber, uploadUrlExpiry);
+    }
+
+    /**
+     * Возвращает части, уже загруженные в хранилище
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param uploadId ID загрузки в хранилище
+     * @return загруженные части по возрастанию номера
+     * @throws ResourceNotFoundException если загрузка не найдена в хранилище
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public List<UploadedPart> listUploadedParts(String objectName, String uploadId) {
+        return multipartStorage().listParts(objectName, uploadId);
+    }
+
+    /**
+     * Собирает объект из загруженных частей
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param uploadId ID загрузки в хранилище
+     * @param parts части по возрастанию номера
+     * @throws ResourceNotFoundException если загрузка не найдена в хранилище
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public void completeMultipartUpload(String objectName, String uploadId, List<UploadedPart> parts) {
+        multipartStorage().completeMultipartUpload(objectName, uploadId, parts);
+    }
+
+    /**
+     * Отменяет multipart загрузку и удаляет загруженные части.
+     * Отсутствие загрузки в хранилище ошибкой не считается.
+     *
+     * @param objectName путь к файлу в хранилище
+     * @param uploadId ID загрузки в хранилище
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public void abortMultipartUpload(String objectName, String uploadId) {
+        multipartStorage().abortMultipartUpload(objectName, uploadId);
+    }
+
+    /**
+     * Время жизни URL для загрузки
+     */
+    public Duration getUploadUrlExpiry() {
+        return uploadUrlExpiry;
+    }
+
+    /**
+     * Получает метаданные объекта
+     *
+     * @param objectName путь к файлу в хранилище
+     * @return метаданные объекта
+     * @throws ResourceNotFoundException если объект не найден
+     * @throws RuntimeException если произошла ошибка при обращении к хранилищу
+     */
+    public StoredObject statFile(String objectName) {
+        return storage.stat(objectName);
+    }
+
+    private MultipartObjectStorage multipartStorage() {
+        if (storage instanceof MultipartObjectStorage multipart) {
+            return multipart;
         }
+        throw new PolicyViolationError("Хранилище не поддерживает загрузку по частям");
     }
 
     /**
@@ -161,6 +321,10 @@ public class MinioService {
         if (originalFileName != null && originalFileName.contains(".")) {
             extension = originalFileName.substring(originalFileName.lastIndexOf("."));
         }
+        // Имя файла приходит от клиента, в путь объекта попадает только безопасное расширение
+        if (!extension.matches("\\.[A-Za-z0-9]{1,10}")) {
+            extension = "";
+        }
         
         String timestamp = String.valueOf(ZonedDateTime.now().toEpochSecond());
         String uuid = UUID.randomUUID().toString().substring(0, 8);
@@ -169,20 +333,16 @@ public class MinioService {
     }
 
     @PostConstruct
-    public void ensureBucketExists() {
-        try {
-            boolean exists = minioClient.bucketExists(
-                    BucketExistsArgs.builder().bucket(bucketName).build()
-            );
-            if (!exists) {
-                minioClient.makeBucket(
-                        MakeBucketArgs.builder().bucket(bucketName).build()
-                );
-                log.info("Бакет '{}' создан", bucketName);
-            }
-        } catch (Exception e) {
-            log.error("Не удалось проверить/создать бакет '{}'", bucketName, e);
-            throw new RuntimeException(e);
+    public void init() {
+        Duration ttl = presignedUrlExpiry.minus(presignedUrlSafetyMargin);
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalStateException("Запас кеша presigned URL должен быть меньше времени жизни URL");
         }
+        presignedUrls = Caffeine.newBuilder()
+                .maximumSize(presignedUrlCacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, presignedUrls, "presignedUrls");
     }
-}
\ No newline at end of file
+}
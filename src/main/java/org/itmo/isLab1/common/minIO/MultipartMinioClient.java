@@ -0,0 +1,84 @@
+package org.itmo.isLab1.common.minIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+import io.minio.ListPartsResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+
+/**
+ * Клиент MinIO с доступом к низкоуровневым операциям S3 multipart upload.
+ * В SDK эти операции объявлены защищенными и используются только внутри putObject,
+ * для возобновляемой загрузки ими нужно управлять по отдельности.
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    /** Максимальное количество частей в одном ответе ListParts */
+    private static final int LIST_PARTS_PAGE_SIZE = 1000;
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * Начало multipart загрузки
+     *
+     * @return ID загрузки в хранилище
+     */
+    public String createMultipartUpload(String bucketName, String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("Content-Type", contentType);
+        return await(createMultipartUploadAsync(bucketName, null, objectName, headers, null))
+            .result()
+            .uploadId();
+    }
+
+    /**
+     * Все загруженные части, с учетом постраничной выдачи хранилища
+     */
+    public List<Part> listParts(String bucketName, String objectName, String uploadId) throws Exception {
+        List<Part> parts = new ArrayList<>();
+        Integer marker = null;
+        while (true) {
+            ListPartsResponse response = await(listPartsAsync(
+                bucketName, null, objectName, LIST_PARTS_PAGE_SIZE, marker, uploadId, null, null
+            ));
+            ListPartsResult result = response.result();
+            parts.addAll(result.partList());
+            if (!result.isTruncated()) {
+                return parts;
+            }
+            marker = result.nextPartNumberMarker();
+        }
+    }
+
+    /**
+     * Сборка объекта из загруженных частей
+     */
+    public void completeMultipartUpload(String bucketName, String objectName, String uploadId, Part[] parts) throws Exception {
+        await(completeMultipartUploadAsync(bucketName, null, objectName, uploadId, parts, null, null));
+    }
+
+    /**
+     * Отмена загрузки и удаление загруженных частей
+     */
+    public void abortMultipartUpload(String bucketName, String objectName, String uploadId) throws Exception {
+        await(abortMultipartUploadAsync(bucketName, null, objectName, uploadId, null, null));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Возвращаем исходную ошибку хранилища, например ErrorResponseException с кодом NoSuchUpload
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
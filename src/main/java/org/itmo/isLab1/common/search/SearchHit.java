@@ -0,0 +1,16 @@
+package org.itmo.isLab1.common.search;
+
+/**
+ * Строка результата полнотекстового поиска
+ */
+public interface SearchHit {
+
+    /** ID найденной записи */
+    Long getId();
+
+    /** Фрагменты текста с выделенными совпадениями */
+    String getSnippet();
+
+    /** Релевантность, больше - выше в выдаче */
+    Double getRank();
+}
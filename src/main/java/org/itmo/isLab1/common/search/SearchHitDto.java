@@ -0,0 +1,21 @@
+package org.itmo.isLab1.common.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Найденная запись с фрагментом текста, в котором совпадения выделены тегами b
+ *
+ * @param <T> DTO записи
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto<T> {
+    private T item;
+    private String snippet;
+    private Double rank;
+}
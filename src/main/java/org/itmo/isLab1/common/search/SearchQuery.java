@@ -0,0 +1,31 @@
+package org.itmo.isLab1.common.search;
+
+/**
+ * Проверка поискового запроса, передаваемого в websearch_to_tsquery
+ */
+public final class SearchQuery {
+
+    /** Максимальная длина запроса в символах */
+    public static final int MAX_LENGTH = 256;
+
+    private SearchQuery() {
+    }
+
+    /**
+     * Нормализованный поисковый запрос
+     *
+     * @param query запрос пользователя
+     * @return запрос без крайних пробелов
+     * @throws IllegalArgumentException если запрос пуст или слишком длинный
+     */
+    public static String normalize(String query) {
+        String normalized = query == null ? "" : query.strip();
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Поисковый запрос не может быть пустым");
+        }
+        if (normalized.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Поисковый запрос длиннее " + MAX_LENGTH + " символов");
+        }
+        return normalized;
+    }
+}
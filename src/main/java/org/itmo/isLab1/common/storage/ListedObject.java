@@ -0,0 +1,13 @@
+package org.itmo.isLab1.common.storage;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Объект из листинга хранилища
+ *
+ * @param objectName   путь к объекту
+ * @param size         размер в байтах
+ * @param lastModified время последнего изменения
+ */
+public record ListedObject(String objectName, long size, ZonedDateTime lastModified) {
+}
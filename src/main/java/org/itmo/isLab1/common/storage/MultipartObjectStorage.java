@@ -0,0 +1,60 @@
+package org.itmo.isLab1.common.storage;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+
+/**
+ * Хранилище с поддержкой загрузки объекта по частям в духе S3 multipart upload
+ */
+public interface MultipartObjectStorage extends ObjectStorage {
+
+    /**
+     * Начинает загрузку по частям
+     *
+     * @param objectName  путь к объекту
+     * @param contentType MIME тип, с которым будет сохранен объект
+     * @return ID загрузки в хранилище
+     */
+    String createMultipartUpload(String objectName, String contentType);
+
+    /**
+     * Подписанная ссылка на загрузку одной части клиентом
+     *
+     * @param objectName путь к объекту
+     * @param uploadId   ID загрузки в хранилище
+     * @param partNumber номер части, начиная с 1
+     * @param expiry     время жизни ссылки
+     * @return URL для запроса PUT
+     */
+    String presignPart(String objectName, String uploadId, int partNumber, Duration expiry);
+
+    /**
+     * Загруженные части
+     *
+     * @param objectName путь к объекту
+     * @param uploadId   ID загрузки в хранилище
+     * @return части по возрастанию номера
+     * @throws ResourceNotFoundException если загрузка не найдена
+     */
+    List<UploadedPart> listParts(String objectName, String uploadId);
+
+    /**
+     * Собирает объект из загруженных частей
+     *
+     * @param objectName путь к объекту
+     * @param uploadId   ID загрузки в хранилище
+     * @param parts      части по возрастанию номера
+     * @throws ResourceNotFoundException если загрузка не найдена
+     */
+    void completeMultipartUpload(String objectName, String uploadId, List<UploadedPart> parts);
+
+    /**
+     * Отменяет загрузку и удаляет загруженные части. Отсутствие загрузки ошибкой не считается.
+     *
+     * @param objectName путь к объекту
+     * @param uploadId   ID загрузки в хранилище
+     */
+    void abortMultipartUpload(String objectName, String uploadId);
+}
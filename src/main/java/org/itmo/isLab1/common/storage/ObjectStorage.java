@@ -0,0 +1,98 @@
+package org.itmo.isLab1.common.storage;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+
+/**
+ * Хранилище объектов медиафайлов.
+ * Реализация выбирается свойством app.storage.type: minio (по умолчанию) или local.
+ * Методы сообщают об ошибках хранилища через RuntimeException.
+ */
+public interface ObjectStorage {
+
+    /**
+     * Сохраняет объект, существующий объект перезаписывается
+     *
+     * @param objectName  путь к объекту
+     * @param content     содержимое, поток закрывает вызывающий код
+     * @param size        размер содержимого в байтах
+     * @param contentType MIME тип
+     */
+    void put(String objectName, InputStream content, long size, String contentType);
+
+    /**
+     * Открывает объект для чтения. Поток должен быть закрыт вызывающим кодом.
+     *
+     * @param objectName путь к объекту
+     * @return содержимое объекта
+     * @throws ResourceNotFoundException если объект не найден
+     */
+    InputStream get(String objectName);
+
+    /**
+     * Открывает часть объекта для чтения. Поток должен быть закрыт вызывающим кодом.
+     *
+     * @param objectName путь к объекту
+     * @param offset     смещение первого байта
+     * @param length     количество байт
+     * @return содержимое части объекта
+     * @throws ResourceNotFoundException если объект не найден
+     */
+    InputStream get(String objectName, long offset, long length);
+
+    /**
+     * Метаданные объекта
+     *
+     * @param objectName путь к объекту
+     * @return метаданные
+     * @throws ResourceNotFoundException если объект не найден
+     */
+    StoredObject stat(String objectName);
+
+    /**
+     * Удаляет объект
+     *
+     * @param objectName путь к объекту
+     * @throws ResourceNotFoundException если хранилище сообщило, что объект не найден
+     */
+    void delete(String objectName);
+
+    /**
+     * Удаляет объекты пачкой. Отсутствующие объекты ошибкой не считаются.
+     *
+     * @param objectNames пути к объектам
+     * @return пути объектов, которые удалить не удалось
+     */
+    List<String> deleteAll(List<String> objectNames);
+
+    /**
+     * Обход объектов с префиксом. Поток читается лениво и должен быть закрыт вызывающим кодом,
+     * порядок объектов зависит от хранилища.
+     *
+     * @param prefix префикс пути
+     * @return поток объектов
+     */
+    Stream<ListedObject> list(String prefix);
+
+    /**
+     * Подписанная ссылка на чтение объекта
+     *
+     * @param objectName путь к объекту
+     * @param expiry     время жизни ссылки
+     * @return URL для запроса GET
+     */
+    String presignGet(String objectName, Duration expiry);
+
+    /**
+     * Подписанная ссылка на загрузку объекта клиентом
+     *
+     * @param objectName путь к объекту
+     * @param expiry     время жизни ссылки
+     * @return URL для запроса PUT
+     */
+    String presignPut(String objectName, Duration expiry);
+}
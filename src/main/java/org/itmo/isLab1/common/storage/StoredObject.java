@@ -0,0 +1,15 @@
+package org.itmo.isLab1.common.storage;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Метаданные объекта в хранилище
+ *
+ * @param objectName   путь к объекту
+ * @param size         размер в байтах
+ * @param contentType  MIME тип, с которым объект был загружен
+ * @param etag         ETag объекта, меняется при перезаписи
+ * @param lastModified время последнего изменения
+ */
+public record StoredObject(String objectName, long size, String contentType, String etag, ZonedDateTime lastModified) {
+}
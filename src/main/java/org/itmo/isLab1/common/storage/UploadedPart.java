@@ -0,0 +1,11 @@
+package org.itmo.isLab1.common.storage;
+
+/**
+ * Загруженная часть multipart загрузки
+ *
+ * @param partNumber номер части, начиная с 1
+ * @param etag       ETag части в хранилище
+ * @param size       размер части в байтах
+ */
+public record UploadedPart(int partNumber, String etag, long size) {
+}
@@ -0,0 +1,367 @@
+package org.itmo.isLab1.common.storage.local;
+
+import lombok.extern.slf4j.Slf4j;
+import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.storage.ListedObject;
+import org.itmo.isLab1.common.storage.ObjectStorage;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище объектов в каталоге локальной файловой системы для развертывания на одном узле.
+ * Объекты отдаются приложением через {@link LocalStorageController} по ссылкам,
+ * подписанным HMAC-SHA256 ключом приложения. Загрузка по частям не поддерживается.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    /** Префикс временных файлов незавершенной записи, такие файлы не попадают в листинг */
+    private static final String TEMP_PREFIX = ".upload-";
+
+    /** Расширенный атрибут файла с MIME типом объекта */
+    private static final String CONTENT_TYPE_ATTRIBUTE = "user.content_type";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private static final String OBJECTS_PATH = "/api/storage/objects/";
+
+    private final Path root;
+    private final String publicUrl;
+    private final SecretKeySpec signingKey;
+
+    public LocalObjectStorage(
+        @Value("${app.storage.local.root:./data/storage}") String root,
+        @Value("${app.storage.local.public-url:http://localhost:15123}") String publicUrl,
+        @Value("${app.storage.local.signing-key:}") String signingKey
+    ) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+
+        byte[] key;
+        if (signingKey.isBlank()) {
+            // Без ключа в настройках ссылки перестают действовать после перезапуска приложения
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("Ключ подписи локального хранилища не задан, используется случайный");
+        } else {
+            key = signingKey.getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(key, "HmacSHA256");
+
+        Files.createDirectories(this.root);
+        log.info("Локальное хранилище объектов: {}", this.root);
+    }
+
+    @Override
+    public void put(String objectName, InputStream content, long size, String contentType) {
+        Path target = resolve(objectName);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            // Запись во временный файл и переименование: читатели не видят частично записанный объект
+            temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+            long written = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (size >= 0 && written != size) {
+                throw new IOException("Получено " + written + " байт вместо " + size);
+            }
+            writeContentType(temp, contentType);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Файл сохранен в локальное хранилище: object={}", objectName);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            log.error("Ошибка при сохранении файла в локальное хранилище", e);
+            throw new RuntimeException("Ошибка при загрузке файла", e);
+        }
+    }
+
+    @Override
+    public InputStream get(String objectName) {
+        try {
+            return Files.newInputStream(resolve(objectName));
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при чтении файла: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream get(String objectName, long offset, long length) {
+        FileChannel channel = openChannel(objectName);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException("Ошибка при чтении файла: " + e.getMessage(), e);
+        }
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    /**
+     * Открывает файл объекта для чтения. Канал должен быть закрыт вызывающим кодом.
+     *
+     * @param objectName путь к объекту
+     * @return канал файла
+     * @throws ResourceNotFoundException если объект не найден
+     */
+    private FileChannel openChannel(String objectName) {
+        try {
+            return FileChannel.open(resolve(objectName), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при чтении файла: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Абсолютный путь к файлу объекта, например для отдачи файла средствами контейнера
+     *
+     * @param objectName путь к объекту
+     * @return путь к файлу внутри корневого каталога
+     * @throws IllegalArgumentException если путь объекта выходит за пределы корневого каталога
+     */
+    public Path file(String objectName) {
+        return resolve(objectName).toAbsolutePath();
+    }
+
+    @Override
+    public StoredObject stat(String objectName) {
+        Path path = resolve(objectName);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+            }
+            long modifiedAt = attributes.lastModifiedTime().toMillis();
+            return new StoredObject(
+                objectName,
+                attributes.size(),
+                readContentType(path),
+                Long.toHexString(attributes.size()) + "-" + Long.toHexString(modifiedAt),
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(modifiedAt), ZoneOffset.UTC)
+            );
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка получения информации о файле: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String objectName) {
+        try {
+            Files.delete(resolve(objectName));
+            log.info("Файл успешно удален из локального хранилища: object={}", objectName);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Файл не найден в хранилище: " + objectName);
+        } catch (IOException e) {
+            log.error("Ошибка при удалении файла из локального хранилища: {}", e.getMessage(), e);
+            throw new RuntimeException("Ошибка при удалении файла: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(List<String> objectNames) {
+        List<String> failed = new ArrayList<>();
+        for (String objectName : objectNames) {
+            try {
+                Files.deleteIfExists(resolve(objectName));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Не удалось удалить файл {}: {}", objectName, e.getMessage());
+                failed.add(objectName);
+            }
+        }
+        log.info("Удалено файлов из локального хранилища: {}", objectNames.size() - failed.size());
+        return failed;
+    }
+
+    /**
+     * Обход каталога в порядке файловой системы
+     */
+    @Override
+    public Stream<ListedObject> list(String prefix) {
+        // Обходится только каталог, в котором лежат объекты с префиксом
+        Path start = prefix.isEmpty() || prefix.endsWith("/")
+            ? resolve(prefix)
+            : resolve(prefix).getParent();
+        if (!Files.isDirectory(start)) {
+            return Stream.empty();
+        }
+
+        try {
+            return Files.walk(start)
+                .filter(path -> !path.getFileName().toString().startsWith(TEMP_PREFIX))
+                .map(this::toListedObject)
+                .filter(object -> object != null && object.objectName().startsWith(prefix));
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка получения списка файлов: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Объект листинга для файла, null для каталогов и файлов, удаленных во время обхода
+     */
+    private ListedObject toListedObject(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            return new ListedObject(
+                objectName(path),
+                attributes.size(),
+                ZonedDateTime.ofInstant(attributes.lastModifiedTime().toInstant(), ZoneOffset.UTC)
+            );
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String presignGet(String objectName, Duration expiry) {
+        return presign("GET", objectName, expiry);
+    }
+
+    @Override
+    public String presignPut(String objectName, Duration expiry) {
+        return presign("PUT", objectName, expiry);
+    }
+
+    /**
+     * Проверка подписи ссылки, выданной {@link #presignGet} или {@link #presignPut}
+     *
+     * @param method    HTTP метод запроса
+     * @param objectName путь к объекту
+     * @param expires   время истечения ссылки в секундах эпохи
+     * @param signature подпись из ссылки
+     * @return true, если ссылка подписана этим хранилищем для метода и еще действует
+     */
+    public boolean verify(String method, String objectName, long expires, String signature) {
+        if (signature == null || Instant.now().getEpochSecond() > expires) {
+            return false;
+        }
+        byte[] expected = sign(method, objectName, expires).getBytes(StandardCharsets.US_ASCII);
+        // Сравнение за постоянное время, чтобы подпись нельзя было подобрать по времени ответа
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String presign(String method, String objectName, Duration expiry) {
+        resolve(objectName);
+        long expires = Instant.now().plus(expiry).getEpochSecond();
+        return publicUrl + OBJECTS_PATH + UriUtils.encodePath(objectName, StandardCharsets.UTF_8)
+            + "?expires=" + expires
+            + "&signature=" + sign(method, objectName, expires);
+    }
+
+    private String sign(String method, String objectName, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal((method + "\n" + objectName + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 недоступен", e);
+        }
+    }
+
+    /**
+     * Путь к файлу объекта внутри корневого каталога
+     *
+     * @throws IllegalArgumentException если путь объекта выходит за пределы корневого каталога
+     */
+    private Path resolve(String objectName) {
+        Path path = root.resolve(objectName).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Некорректный путь объекта: " + objectName);
+        }
+        return path;
+    }
+
+    private String objectName(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    private void writeContentType(Path path, String contentType) {
+        if (contentType == null) {
+            return;
+        }
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        try {
+            view.write(CONTENT_TYPE_ATTRIBUTE, StandardCharsets.UTF_8.encode(contentType));
+        } catch (IOException | UnsupportedOperationException e) {
+            // Файловая система без расширенных атрибутов, тип будет определен по имени
+            log.debug("Не удалось сохранить MIME тип файла {}: {}", path, e.getMessage());
+        }
+    }
+
+    private String readContentType(Path path) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        if (view != null) {
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(view.size(CONTENT_TYPE_ATTRIBUTE));
+                view.read(CONTENT_TYPE_ATTRIBUTE, buffer);
+                buffer.flip();
+                return StandardCharsets.UTF_8.decode(buffer).toString();
+            } catch (IOException | UnsupportedOperationException e) {
+                // Атрибут не записан, тип определяется по имени
+            }
+        }
+        String guessed = URLConnection.guessContentTypeFromName(path.getFileName().toString());
+        return guessed != null ? guessed : DEFAULT_CONTENT_TYPE;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Ошибка закрытия файла: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.itmo.isLab1.common.storage.local;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+import org.itmo.isLab1.common.errors.PolicyViolationError;
+import org.itmo.isLab1.common.storage.StoredObject;
+import org.itmo.isLab1.common.utils.http.ETags;
+import org.itmo.isLab1.common.utils.http.HttpRanges;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+
+/**
+ * REST-контроллер для доступа к объектам локального хранилища по подписанным ссылкам.
+ * Ссылки выдает {@link LocalObjectStorage}, аутентификация не требуется.
+ */
+@RestController
+@RequestMapping("/api/storage/objects")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalStorageController {
+
+    /** Атрибуты запроса, через которые Tomcat принимает файл для отдачи системным вызовом sendfile */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalObjectStorage storage;
+
+    // Локальное хранилище не поддерживает multipart, по ссылке загружается только файл целиком
+    @Value("${spring.minio.media.max-file-size:10485760}")
+    private long maxFileSize;
+
+    /**
+     * Отдача объекта с поддержкой Range и условных запросов по ETag.
+     * Если коннектор поддерживает sendfile, файл отдает сам Tomcat без чтения содержимого в JVM,
+     * иначе содержимое копируется в поток ответа через буфер.
+     *
+     * @param key       путь к объекту
+     * @param expires   время истечения ссылки в секундах эпохи
+     * @param signature подпись ссылки
+     */
+    @GetMapping("/{*key}")
+    public void getObject(
+            @PathVariable String key,
+            @RequestParam long expires,
+            @RequestParam String signature,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String objectName = key.substring(1);
+        if (!storage.verify("GET", objectName, expires, signature)) {
+            throw new PolicyViolationError("Ссылка недействительна или истекла");
+        }
+
+        StoredObject object = storage.stat(objectName);
+        String etag = ETags.strong(object.etag());
+        long size = object.size();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, object.lastModified().toInstant().toEpochMilli());
+        // Содержимое по ключу не меняется, кешировать можно до истечения ссылки
+        long maxAge = Math.max(0, expires - Instant.now().getEpochSecond());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge);
+
+        if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+        HttpRange range = HttpRanges.requested(request, etag);
+        if (range != null) {
+            try {
+                start = HttpRanges.start(range, size);
+                length = range.getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, HttpRanges.unsatisfiable(size));
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, HttpRanges.contentRange(start, length, size));
+        }
+
+        response.setContentType(object.contentType());
+        response.setContentLengthLong(length);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Тело ответа не пишется: после возврата из метода коннектор передаст диапазон файла в сокет
+            request.setAttribute(SENDFILE_FILENAME, storage.file(objectName).toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (InputStream content = storage.get(objectName, start, length)) {
+            content.transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * Загрузка объекта по ссылке, выданной для PUT.
+     * Размер тела должен быть указан в Content-Length и не превышать ограничение на размер файла.
+     *
+     * @param key       путь к объекту
+     * @param expires   время истечения ссылки в секундах эпохи
+     * @param signature подпись ссылки
+     * @return пустой ответ с ETag сохраненного объекта
+     * @throws IllegalArgumentException если не указан размер тела запроса
+     * @throws PolicyViolationError     если ссылка недействительна или файл слишком большой
+     */
+    @PutMapping("/{*key}")
+    public ResponseEntity<Void> putObject(
+            @PathVariable String key,
+            @RequestParam long expires,
+            @RequestParam String signature,
+            HttpServletRequest request) throws IOException {
+        String objectName = key.substring(1);
+        if (!storage.verify("PUT", objectName, expires, signature)) {
+            throw new PolicyViolationError("Ссылка недействительна или истекла");
+        }
+
+        long size = request.getContentLengthLong();
+        if (size < 0) {
+            throw new IllegalArgumentException("Не указан размер загружаемого файла");
+        }
+        if (size > maxFileSize) {
+            throw new PolicyViolationError("Размер файла не должен превышать " +
+                    (maxFileSize / 1024 / 1024) + " МБ");
+        }
+
+        // На диск попадает не больше заявленного размера, даже если клиент прислал больше
+        try (InputStream content = new BoundedInputStream(request.getInputStream(), size)) {
+            storage.put(objectName, content, size, request.getContentType());
+        }
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(storage.stat(objectName).etag()))
+                .build();
+    }
+}
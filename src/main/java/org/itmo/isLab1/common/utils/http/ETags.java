@@ -0,0 +1,55 @@
+package org.itmo.isLab1.common.utils.http;
+
+/**
+ * Формирование ETag и проверка условных запросов If-None-Match
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Сильный ETag
+     *
+     * @param value значение без кавычек
+     * @return ETag в кавычках
+     */
+    public static String strong(String value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Слабый ETag
+     *
+     * @param value значение без кавычек
+     * @return ETag вида W/"value"
+     */
+    public static String weak(String value) {
+        return "W/" + strong(value);
+    }
+
+    /**
+     * Проверка If-None-Match слабым сравнением: W/"x" и "x" считаются совпадающими
+     *
+     * @param ifNoneMatch значение заголовка If-None-Match, может быть null
+     * @param etag        текущий ETag
+     * @return true, если у клиента актуальная версия
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || opaque(value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
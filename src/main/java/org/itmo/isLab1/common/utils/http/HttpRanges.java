@@ -0,0 +1,80 @@
+package org.itmo.isLab1.common.utils.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.util.List;
+
+/**
+ * Разбор заголовков Range и If-Range при отдаче содержимого по частям
+ */
+public final class HttpRanges {
+
+    private HttpRanges() {
+    }
+
+    /**
+     * Единственный диапазон из заголовка Range. Диапазон не учитывается, если If-Range
+     * не совпадает с текущим ETag, заголовок некорректен или диапазонов несколько:
+     * тогда отдается все содержимое.
+     *
+     * @param request запрос
+     * @param etag    текущий ETag содержимого в кавычках
+     * @return диапазон или null
+     */
+    public static HttpRange requested(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Смещение первого байта диапазона.
+     * {@link HttpRange#getRangeStart} не проверяет, что диапазон начинается внутри содержимого.
+     *
+     * @param range диапазон из запроса
+     * @param size  полный размер содержимого
+     * @return смещение первого байта
+     * @throws IllegalArgumentException если диапазон начинается за концом содержимого, ответ 416
+     */
+    public static long start(HttpRange range, long size) {
+        long start = range.getRangeStart(size);
+        if (start >= size) {
+            throw new IllegalArgumentException("Диапазон начинается за концом содержимого: " + range);
+        }
+        return start;
+    }
+
+    /**
+     * Значение Content-Range для отдаваемой части
+     *
+     * @param start  смещение первого байта
+     * @param length количество байт
+     * @param size   полный размер содержимого
+     */
+    public static String contentRange(long start, long length, long size) {
+        return "bytes " + start + "-" + (start + length - 1) + "/" + size;
+    }
+
+    /**
+     * Значение Content-Range для ответа 416
+     *
+     * @param size полный размер содержимого
+     */
+    public static String unsatisfiable(long size) {
+        return "bytes */" + size;
+    }
+}
@@ -0,0 +1,21 @@
+package org.itmo.isLab1.common.utils.http;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Версия публичного ресурса для условных запросов: выбирается запросом без загрузки сущности
+ *
+ * @param id          ID ресурса
+ * @param isPublished опубликован ли ресурс
+ * @param updatedAt   время последнего изменения, может быть null
+ */
+public record ResourceVersion(Long id, Boolean isPublished, ZonedDateTime updatedAt) {
+
+    /**
+     * Слабый ETag версии: ответ строится из тех же данных, но побайтово может отличаться
+     */
+    public String etag() {
+        long modifiedAt = updatedAt == null ? 0 : updatedAt.toInstant().toEpochMilli();
+        return ETags.weak(id + "-" + Long.toHexString(modifiedAt));
+    }
+}
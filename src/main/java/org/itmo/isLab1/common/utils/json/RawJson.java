@@ -0,0 +1,56 @@
+package org.itmo.isLab1.common.utils.json;
+
+import java.util.Objects;
+
+/**
+ * JSON объект, который приложение хранит и отдает как готовый текст, не разбирая его.
+ * Текст проверяется один раз при чтении запроса в {@link RawJsonDeserializer},
+ * из БД и в ответ он передается без разбора и повторной сериализации.
+ */
+public final class RawJson {
+
+    private final String value;
+
+    private RawJson(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Обертка над текстом, который уже является корректным JSON, например значением столбца jsonb
+     *
+     * @param value текст JSON
+     * @return обертка, null для null
+     */
+    public static RawJson of(String value) {
+        return value == null ? null : new RawJson(value);
+    }
+
+    /**
+     * Текст JSON обертки
+     *
+     * @param json обертка, может быть null
+     * @return текст JSON или null
+     */
+    public static String valueOf(RawJson json) {
+        return json == null ? null : json.value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RawJson json && value.equals(json.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
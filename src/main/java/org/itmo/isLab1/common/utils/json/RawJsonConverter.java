@@ -0,0 +1,21 @@
+package org.itmo.isLab1.common.utils.json;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Хранение {@link RawJson} в столбце jsonb. Вместе с {@code @JdbcTypeCode(SqlTypes.JSON)}
+ * Hibernate передает строку как есть, без разбора в Map и обратно.
+ */
+@Converter(autoApply = true)
+public class RawJsonConverter implements AttributeConverter<RawJson, String> {
+  @Override
+  public String convertToDatabaseColumn(RawJson entityAttribute) {
+    return RawJson.valueOf(entityAttribute);
+  }
+
+  @Override
+  public RawJson convertToEntityAttribute(String databaseColumn) {
+    return RawJson.of(databaseColumn);
+  }
+}
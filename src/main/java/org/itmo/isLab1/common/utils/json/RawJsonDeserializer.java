@@ -0,0 +1,26 @@
+package org.itmo.isLab1.common.utils.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/**
+ * Проверка JSON из запроса: значение должно быть объектом, сохраняется его компактный текст
+ */
+public class RawJsonDeserializer extends JsonDeserializer<RawJson> {
+  public Class<RawJson> handledType() {
+    return RawJson.class;
+  }
+
+  @Override
+  public RawJson deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    JsonNode node = jp.getCodec().readTree(jp);
+    if (node == null || !node.isObject()) {
+      return ctxt.reportInputMismatch(RawJson.class, "Ожидается JSON объект");
+    }
+    return RawJson.of(node.toString());
+  }
+}
@@ -0,0 +1,19 @@
+package org.itmo.isLab1.common.utils.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+public class RawJsonSerializer extends JsonSerializer<RawJson> {
+  public Class<RawJson> handledType() {
+    return RawJson.class;
+  }
+
+  @Override
+  public void serialize(RawJson json, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    // текст проверен при записи, поэтому копируется в ответ без разбора
+    generator.writeRawValue(json.value());
+  }
+}
@@ -0,0 +1,18 @@
+package org.itmo.isLab1.common.views;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyViewsDto {
+    private LocalDate date;
+    private Long viewsCount;
+    private Long uniqueVisitors;
+}
@@ -0,0 +1,170 @@
+package org.itmo.isLab1.common.views;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Скетч HyperLogLog для приблизительного подсчета уникальных посетителей.
+ * Занимает фиксированные {@value #REGISTERS} байт независимо от числа посетителей,
+ * стандартная ошибка оценки около 2.3%. Скетчи объединяются поэлементным максимумом
+ * регистров, тот же алгоритм реализует функция БД hll_merge.
+ * Добавление и объединение потокобезопасны без блокировок: регистры упакованы по четыре
+ * в {@link AtomicIntegerArray}, и каждый поднимается до нового максимума через CAS.
+ */
+public final class HyperLogLog {
+
+    private static final int PRECISION = 11;
+    public static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    /** Регистры по байту, четыре в одном слове */
+    private final AtomicIntegerArray words = new AtomicIntegerArray(REGISTERS / Integer.BYTES);
+
+    /**
+     * Восстановление скетча из сериализованного вида
+     *
+     * @param bytes значение колонки или null
+     * @return скетч (пустой для null)
+     * @throws IllegalArgumentException если размер не совпадает с ожидаемым
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return new HyperLogLog();
+        }
+        if (bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("Некорректный размер скетча: " + bytes.length);
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < REGISTERS; i++) {
+            sketch.raise(i, bytes[i] & 0xff);
+        }
+        return sketch;
+    }
+
+    /**
+     * Оценка количества уникальных посетителей по сериализованному скетчу
+     *
+     * @param bytes значение колонки или null
+     * @return оценка, 0 для отсутствующего скетча
+     */
+    public static long estimate(byte[] bytes) {
+        return bytes == null ? 0 : fromBytes(bytes).estimate();
+    }
+
+    /**
+     * Добавление посетителя
+     *
+     * @param visitorKey ключ посетителя (id пользователя или отпечаток анонимного клиента)
+     */
+    public void offer(String visitorKey) {
+        long hash = hash(visitorKey);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // Позиция первой единицы в оставшихся битах, ограничена их количеством
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+        raise(index, rank);
+    }
+
+    /**
+     * Объединение с другим скетчем
+     *
+     * @param other скетч, посетители которого добавляются в текущий
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            raise(i, other.register(i));
+        }
+    }
+
+    /**
+     * Оценка количества уникальных посетителей
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTERS; i++) {
+            int register = register(i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // На малых количествах точнее линейный подсчет по пустым регистрам
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < words.length(); i++) {
+            if (words.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) {
+            bytes[i] = (byte) register(i);
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && Arrays.equals(toBytes(), other.toBytes());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toBytes());
+    }
+
+    private int register(int index) {
+        return (words.get(index / Integer.BYTES) >>> shift(index)) & 0xff;
+    }
+
+    /**
+     * Поднимает регистр до значения, если оно больше текущего.
+     * Слово с регистром заменяется через CAS, при гонке попытка повторяется с новым значением слова.
+     */
+    private void raise(int index, int value) {
+        int word = index / Integer.BYTES;
+        int shift = shift(index);
+        int current = words.get(word);
+        while (((current >>> shift) & 0xff) < value) {
+            int updated = (current & ~(0xff << shift)) | (value << shift);
+            int witness = words.compareAndExchange(word, current, updated);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    private static int shift(int index) {
+        return (index % Integer.BYTES) * Byte.SIZE;
+    }
+
+    /**
+     * 64-битный хеш: FNV-1a с финальным перемешиванием из MurmurHash3
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
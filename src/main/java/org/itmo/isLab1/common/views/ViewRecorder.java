@@ -0,0 +1,294 @@
+package org.itmo.isLab1.common.views;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.itmo.isLab1.programs.repository.ProgramStatsRepository;
+import org.itmo.isLab1.residences.repository.ResidenceDetailsRepository;
+import org.itmo.isLab1.residences.repository.ResidenceStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Буферизованный учет просмотров программ и резиденций.
+ * Просмотры копятся в памяти в полосатых счетчиках ({@link LongAdder}) и периодически
+ * сбрасываются в БД одной пачкой, поэтому чтение программы или резиденции не требует
+ * пишущей транзакции и не блокирует строку статистики. Учет просмотра не берет блокировок:
+ * счетчик читается из {@link ConcurrentHashMap} и увеличивается без блокировки ключа.
+ * Вместе со счетчиком для каждой сущности копится скетч уникальных посетителей за текущий день.
+ */
+@Slf4j
+@Component
+public class ViewRecorder {
+
+    private final ProgramStatsRepository programStatsRepository;
+    private final ResidenceDetailsRepository residenceDetailsRepository;
+    private final ResidenceStatsRepository residenceStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ViewBuffer programViews;
+    private final ViewBuffer residenceViews;
+
+    public ViewRecorder(
+        ProgramStatsRepository programStatsRepository,
+        ResidenceDetailsRepository residenceDetailsRepository,
+        ResidenceStatsRepository residenceStatsRepository,
+        TransactionTemplate transactionTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${app.views.buffer.max-entries:10000}") int maxEntries
+    ) {
+        this.programStatsRepository = programStatsRepository;
+        this.residenceDetailsRepository = residenceDetailsRepository;
+        this.residenceStatsRepository = residenceStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.programViews = new ViewBuffer("program", maxEntries, meterRegistry);
+        this.residenceViews = new ViewBuffer("residence", maxEntries, meterRegistry);
+    }
+
+    /**
+     * Учет просмотра программы
+     *
+     * @param programId ID программы
+     */
+    public void recordProgramView(Long programId) {
+        programViews.record(programId, VisitorKeys.current());
+    }
+
+    /**
+     * Учет просмотра резиденции
+     *
+     * @param residenceId ID резиденции
+     */
+    public void recordResidenceView(Long residenceId) {
+        residenceViews.record(residenceId, VisitorKeys.current());
+    }
+
+    /**
+     * Периодический сброс накопленных просмотров в БД
+     */
+    @Scheduled(
+        fixedDelayString = "${app.views.flush-interval:5000}",
+        initialDelayString = "${app.views.flush-interval:5000}"
+    )
+    public synchronized void flush() {
+        flush(programViews, programStatsRepository::createProgramViewLogs, programStatsRepository::mergeProgramVisitors);
+        flush(residenceViews, residenceDetailsRepository::createResidenceViewLogs, residenceStatsRepository::mergeResidenceVisitors);
+    }
+
+    /**
+     * Сброс оставшихся просмотров при остановке приложения
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void flush(
+        ViewBuffer buffer,
+        BiConsumer<String, String> viewsWriter,
+        BiConsumer<Long, byte[]> visitorsWriter
+    ) {
+        Map<Long, ViewBatch> batch = buffer.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> views = new HashMap<>();
+        batch.forEach((id, entry) -> {
+            if (entry.views() > 0) {
+                views.put(id, entry.views());
+            }
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!views.isEmpty()) {
+                    viewsWriter.accept(toSqlArray(views.keySet()), toSqlArray(views.values()));
+                }
+                // Скетчи объединяются в БД функцией hll_merge, поэтому несколько экземпляров приложения не мешают друг другу
+                batch.forEach((id, entry) -> {
+                    if (!entry.visitors().isEmpty()) {
+                        visitorsWriter.accept(id, entry.visitors().toBytes());
+                    }
+                });
+            });
+            buffer.flushed.increment(views.values().stream().mapToLong(Long::longValue).sum());
+        } catch (RuntimeException e) {
+            // Возвращаем просмотры в буфер, чтобы записать их при следующем сбросе
+            log.warn("Не удалось записать просмотры типа {} ({} записей), повтор при следующем сбросе", buffer.type, batch.size(), e);
+            buffer.restore(batch);
+        }
+    }
+
+    private static String toSqlArray(Iterable<Long> values) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Long value : values) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(value);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Накопленные с прошлого сброса просмотры и посетители одной сущности
+     */
+    private record ViewBatch(long views, HyperLogLog visitors) {
+
+        boolean isEmpty() {
+            return views == 0 && visitors.isEmpty();
+        }
+
+        ViewBatch plus(ViewBatch other) {
+            visitors.merge(other.visitors());
+            return new ViewBatch(views + other.views(), visitors);
+        }
+    }
+
+    /**
+     * Счетчик просмотров и скетч посетителей одной сущности.
+     * Снятый сбросом счетчик помечается retired и больше не принимает просмотров.
+     */
+    private static final class ViewCounter {
+        private final LongAdder views = new LongAdder();
+        private final AtomicReference<HyperLogLog> visitors = new AtomicReference<>(new HyperLogLog());
+        private volatile boolean retired;
+
+        /**
+         * @return false, если счетчик уже снят и просмотр нужно учесть в новом
+         */
+        boolean record(String visitorKey) {
+            views.increment();
+            if (retired) {
+                views.decrement();
+                return false;
+            }
+            if (visitorKey != null) {
+                HyperLogLog sketch = visitors.get();
+                sketch.offer(visitorKey);
+                // Если take подменил скетч во время добавления, посетитель повторяется в новом:
+                // повторное добавление оценку не меняет
+                HyperLogLog current = visitors.get();
+                if (current != sketch) {
+                    current.offer(visitorKey);
+                }
+            }
+            return true;
+        }
+
+        ViewBatch take() {
+            return new ViewBatch(views.sumThenReset(), visitors.getAndSet(new HyperLogLog()));
+        }
+
+        /**
+         * Остаток снятого счетчика: просмотры, учтенные между take и пометкой retired
+         */
+        ViewBatch remainder() {
+            return new ViewBatch(views.sum(), visitors.get());
+        }
+
+        void restore(ViewBatch batch) {
+            views.add(batch.views());
+            visitors.get().merge(batch.visitors());
+        }
+    }
+
+    /**
+     * Ограниченный буфер счетчиков просмотров одного типа сущностей
+     */
+    private static final class ViewBuffer {
+        private final String type;
+        private final int maxEntries;
+        private final ConcurrentHashMap<Long, ViewCounter> counters = new ConcurrentHashMap<>();
+        /** Счетчики, снятые прошлым сбросом, остаток которых забирается следующим */
+        private Map<Long, ViewCounter> retired = new HashMap<>();
+        private final Counter flushed;
+        private final Counter dropped;
+
+        ViewBuffer(String type, int maxEntries, MeterRegistry meterRegistry) {
+            this.type = type;
+            this.maxEntries = maxEntries;
+            this.flushed = Counter.builder("art2art.views.flushed")
+                .description("Просмотры, записанные в БД")
+                .tag("type", type)
+                .register(meterRegistry);
+            this.dropped = Counter.builder("art2art.views.dropped")
+                .description("Просмотры, отброшенные из-за переполнения буфера")
+                .tag("type", type)
+                .register(meterRegistry);
+            Gauge.builder("art2art.views.buffered", counters, Map::size)
+                .description("Количество сущностей с несброшенными просмотрами")
+                .tag("type", type)
+                .register(meterRegistry);
+        }
+
+        /**
+         * Просмотр учитывается без блокировок: счетчик берется через get и увеличивается.
+         * Если {@link #drain} успел снять счетчик, просмотр повторяется в новом, созданном через computeIfAbsent.
+         */
+        void record(Long id, String visitorKey) {
+            ViewCounter counter = counters.get(id);
+            while (counter == null || !counter.record(visitorKey)) {
+                if (counters.size() >= maxEntries && !counters.containsKey(id)) {
+                    dropped.increment();
+                    return;
+                }
+                counter = counters.computeIfAbsent(id, key -> new ViewCounter());
+            }
+        }
+
+        /**
+         * Забирает накопленные значения, обнуляя счетчики.
+         * Счетчики без новых просмотров снимаются, чтобы буфер не рос за счет старых ключей:
+         * пометка retired ставится до удаления из карты, а просмотры, учтенные между take и пометкой,
+         * забираются из остатка снятого счетчика при следующем сбросе.
+         * Вызывается только из {@link ViewRecorder#flush()}, поэтому снятые счетчики хранятся в обычной карте.
+         */
+        Map<Long, ViewBatch> drain() {
+            Map<Long, ViewBatch> batch = new HashMap<>();
+            retired.forEach((id, counter) -> {
+                ViewBatch remainder = counter.remainder();
+                if (!remainder.isEmpty()) {
+                    batch.put(id, remainder);
+                }
+            });
+            retired = new HashMap<>();
+
+            counters.forEach((id, counter) -> {
+                ViewBatch taken = counter.take();
+                if (!taken.isEmpty()) {
+                    batch.merge(id, taken, ViewBatch::plus);
+                } else {
+                    counter.retired = true;
+                    counters.remove(id, counter);
+                    retired.put(id, counter);
+                }
+            });
+            return batch;
+        }
+
+        void restore(Map<Long, ViewBatch> batch) {
+            batch.forEach((id, taken) -> {
+                if (counters.size() >= maxEntries && !counters.containsKey(id)) {
+                    dropped.increment(taken.views());
+                    return;
+                }
+                // Снятие счетчиков идет в том же сбросе, поэтому полученный счетчик не снят
+                counters.computeIfAbsent(id, key -> new ViewCounter()).restore(taken);
+            });
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.itmo.isLab1.common.views;
+
+import org.itmo.isLab1.programs.repository.ProgramStatsRepository;
+import org.itmo.isLab1.residences.repository.ResidenceStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Периодический перенос сырого лога просмотров в часовые и дневные агрегаты.
+ * После переноса строки лога удаляются, часовые агрегаты старше срока хранения очищаются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewRollupJob {
+
+    private final ProgramStatsRepository programStatsRepository;
+    private final ResidenceStatsRepository residenceStatsRepository;
+
+    @Value("${app.views.rollup.hourly-retention-days:90}")
+    private int hourlyRetentionDays;
+
+    @Scheduled(
+        fixedDelayString = "${app.views.rollup.interval:300000}",
+        initialDelayString = "${app.views.rollup.interval:300000}"
+    )
+    @Transactional
+    public void rollup() {
+        Long programViews = programStatsRepository.rollupProgramViews(hourlyRetentionDays);
+        Long residenceViews = residenceStatsRepository.rollupResidenceViews(hourlyRetentionDays);
+        log.debug("Перенесено в агрегаты просмотров: программ {}, резиденций {}", programViews, residenceViews);
+    }
+}
@@ -0,0 +1,56 @@
+package org.itmo.isLab1.common.views;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Диапазон дат для временного ряда просмотров (границы включительно)
+ *
+ * @param from первый день
+ * @param to   последний день
+ */
+public record ViewsRange(LocalDate from, LocalDate to) {
+
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366;
+
+    /**
+     * Построение диапазона по параметрам запроса, отсутствующие границы заменяются
+     * последними {@value #DEFAULT_DAYS} днями
+     *
+     * @param from первый день или null
+     * @param to   последний день или null
+     * @return проверенный диапазон
+     * @throws IllegalArgumentException если from позже to или диапазон длиннее {@value #MAX_DAYS} дней
+     */
+    public static ViewsRange of(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Дата начала периода позже даты окончания");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Период не может быть длиннее " + MAX_DAYS + " дней");
+        }
+        return new ViewsRange(start, end);
+    }
+
+    /**
+     * Временной ряд по всем дням диапазона, дни без просмотров заполняются нулями
+     *
+     * @param viewsByDate просмотры и посетители по дням
+     * @return ряд по возрастанию дат
+     */
+    public List<DailyViewsDto> toSeries(Map<LocalDate, DailyViewsDto> viewsByDate) {
+        List<DailyViewsDto> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyViewsDto views = viewsByDate.get(day);
+            series.add(views != null ? views : new DailyViewsDto(day, 0L, 0L));
+        }
+        return series;
+    }
+}
@@ -0,0 +1,39 @@
+package org.itmo.isLab1.common.views;
+
+import java.util.Objects;
+
+import org.itmo.isLab1.users.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Ключ посетителя для подсчета уникальных просмотров
+ */
+final class VisitorKeys {
+
+    private VisitorKeys() {
+    }
+
+    /**
+     * Ключ текущего посетителя: id пользователя для авторизованных запросов,
+     * иначе отпечаток клиента по адресу и User-Agent
+     *
+     * @return ключ или null вне HTTP запроса
+     */
+    static String current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return "u:" + user.getId();
+        }
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return "a:" + request.getRemoteAddr() + "|" + Objects.toString(request.getHeader("User-Agent"), "");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package org.itmo.isLab1.common.ws;
+
+import java.util.Map;
+
+import org.itmo.isLab1.auth.JwtPrincipal;
+import org.itmo.isLab1.auth.JwtService;
+import org.itmo.isLab1.users.User;
+import org.itmo.isLab1.users.UserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Аутентификация WebSocket соединения по JWT токену при рукопожатии.
+ * Браузерный WebSocket не позволяет задать заголовки, поэтому кроме заголовка
+ * Authorization токен принимается в параметре запроса token.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    /** Атрибут сессии с ID аутентифицированного пользователя */
+    public static final String USER_ID_ATTRIBUTE = "userId";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+
+    @Override
+    public boolean beforeHandshake(
+        @NonNull ServerHttpRequest request,
+        @NonNull ServerHttpResponse response,
+        @NonNull WebSocketHandler wsHandler,
+        @NonNull Map<String, Object> attributes
+    ) {
+        String token = extractToken(request);
+        if (token == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        Long userId;
+        try {
+            JwtPrincipal principal = jwtService.parseToken(token);
+            // Токены без id (выпущенные до добавления claim) - ищем по имени
+            userId = principal.id() != null
+                ? principal.id()
+                : userRepository.findByUsername(principal.username()).map(User::getId).orElse(null);
+        } catch (JwtException | IllegalArgumentException e) {
+            userId = null;
+        }
+
+        if (userId == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        attributes.put(USER_ID_ATTRIBUTE, userId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(
+        @NonNull ServerHttpRequest request,
+        @NonNull ServerHttpResponse response,
+        @NonNull WebSocketHandler wsHandler,
+        Exception exception
+    ) {
+    }
+
+    private String extractToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        return token == null || token.isBlank() ? null : token;
+    }
+}
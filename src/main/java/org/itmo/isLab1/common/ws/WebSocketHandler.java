@@ -1,57 +1,349 @@
 package org.itmo.isLab1.common.ws;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Обработчик WebSocket соединений.
+ * Сессии хранятся по ID пользователя, установленному {@link JwtHandshakeInterceptor},
+ * поэтому адресная отправка затрагивает только сессии получателя.
+ * <p>
+ * Отправка не блокирует вызывающий поток: у каждой сессии своя ограниченная очередь,
+ * которую разбирает общий пул отправителей, не более одного потока на сессию одновременно.
+ * Сообщения сверх размера очереди отбрасываются. Сессии, зависшие на отправке дольше лимита
+ * или не отвечающие на ping дольше таймаута, закрываются в отдельном пуле: потоки отправителей
+ * могут быть заняты теми самыми зависшими отправками.
+ */
 @Component
-@RequiredArgsConstructor
 public class WebSocketHandler extends TextWebSocketHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(WebSocketHandler.class);
-    private final List<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
+
+    private final Map<Long, Set<Outbound>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Outbound> sessionsById = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final ExecutorService closer;
+
+    private final int bufferSize;
+    private final long sendTimeLimitNanos;
+    private final long idleTimeoutNanos;
+
+    private final Counter dropped;
+    private final Timer sendTimer;
+    private final MeterRegistry meterRegistry;
+
+    public WebSocketHandler(
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${app.ws.sender-threads:4}") int senderThreads,
+        @Value("${app.ws.close-threads:2}") int closeThreads,
+        @Value("${app.ws.buffer-size:256}") int bufferSize,
+        @Value("${app.ws.send-time-limit:10s}") Duration sendTimeLimit,
+        @Value("${app.ws.idle-timeout:60s}") Duration idleTimeout
+    ) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("ws-send-"));
+        this.closer = Executors.newFixedThreadPool(closeThreads, new CustomizableThreadFactory("ws-close-"));
+        this.bufferSize = bufferSize;
+        this.sendTimeLimitNanos = sendTimeLimit.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        this.dropped = Counter.builder("art2art.ws.messages.dropped")
+            .description("Сообщения, отброшенные из-за переполнения очереди сессии")
+            .register(meterRegistry);
+        this.sendTimer = Timer.builder("art2art.ws.send")
+            .description("Время отправки одного сообщения в сессию")
+            .register(meterRegistry);
+        Gauge.builder("art2art.ws.sessions", sessionsById, Map::size)
+            .description("Количество открытых WebSocket сессий")
+            .register(meterRegistry);
+        Gauge.builder("art2art.ws.queue.depth", sessionsById, sessions -> sessions.values().stream()
+                .mapToInt(outbound -> outbound.queue.size())
+                .sum())
+            .description("Суммарное количество сообщений в очередях сессий")
+            .register(meterRegistry);
+    }
 
     @Override
     public void afterConnectionEstablished(@NonNull WebSocketSession session) {
-        sessions.add(session);
+        Long userId = getUserId(session);
+        if (userId == null) {
+            return;
+        }
+        Outbound outbound = new Outbound(session, userId);
+        sessionsById.put(session.getId(), outbound);
+        sessionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(outbound);
     }
 
     @Override
     public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus status) {
-        sessions.remove(session);
+        Outbound outbound = sessionsById.get(session.getId());
+        if (outbound != null) {
+            unregister(outbound);
+        }
     }
 
+    @Override
+    protected void handleTextMessage(@NonNull WebSocketSession session, @NonNull TextMessage message) {
+        touch(session);
+    }
+
+    @Override
+    protected void handlePongMessage(@NonNull WebSocketSession session, @NonNull PongMessage message) {
+        touch(session);
+    }
+
+    /**
+     * Отправка события всем подключенным клиентам
+     *
+     * @param eventDto событие
+     */
     public void notifyClients(WebSocketDTO eventDto) {
         try {
             var payload = eventDto.getPayload();
 
-            sendMessageToAll(objectMapper.writeValueAsString(payload));
+            TextMessage message = new TextMessage(objectMapper.writeValueAsString(payload));
+            sessionsByUser.values().forEach(sessions -> enqueue(sessions, message));
+        } catch (Exception ex) {
+            logger.warn(ex.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Отправка события во все сессии пользователя
+     *
+     * @param userId   ID получателя
+     * @param eventDto событие
+     */
+    public void notifyUser(Long userId, WebSocketDTO eventDto) {
+        Set<Outbound> sessions = sessionsByUser.get(userId);
+        if (sessions == null) {
+            return;
+        }
+
+        try {
+            var payload = eventDto.getPayload();
+
+            enqueue(sessions, new TextMessage(objectMapper.writeValueAsString(payload)));
         } catch (Exception ex) {
             logger.warn(ex.getLocalizedMessage());
         }
     }
 
-    private void sendMessageToAll(String message) {
-        for (var session : sessions) {
+    /**
+     * Проверка живости сессий: ping живым, закрытие молчащих и зависших на отправке
+     */
+    @Scheduled(
+        fixedDelayString = "${app.ws.heartbeat-interval:25000}",
+        initialDelayString = "${app.ws.heartbeat-interval:25000}"
+    )
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Outbound outbound : sessionsById.values()) {
+            if (outbound.isStuck(now)) {
+                evict(outbound, "slow", CloseStatus.SESSION_NOT_RELIABLE);
+            } else if (now - outbound.lastSeenAt > idleTimeoutNanos) {
+                evict(outbound, "idle", CloseStatus.GOING_AWAY);
+            } else {
+                outbound.offer(new PingMessage(ByteBuffer.allocate(0)));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sender.shutdown();
+        closer.shutdown();
+        if (!sender.awaitTermination(5, TimeUnit.SECONDS)) {
+            sender.shutdownNow();
+        }
+        if (!closer.awaitTermination(5, TimeUnit.SECONDS)) {
+            closer.shutdownNow();
+        }
+    }
+
+    private void enqueue(Set<Outbound> sessions, WebSocketMessage<?> message) {
+        for (var outbound : sessions) {
+            if (!outbound.offer(message)) {
+                dropped.increment();
+                // Переполненная очередь при зависшей отправке - медленный клиент, не ждем heartbeat
+                if (outbound.isStuck(System.nanoTime())) {
+                    evict(outbound, "slow", CloseStatus.SESSION_NOT_RELIABLE);
+                }
+            }
+        }
+    }
+
+    private void touch(WebSocketSession session) {
+        Outbound outbound = sessionsById.get(session.getId());
+        if (outbound != null) {
+            outbound.lastSeenAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Отключение сессии: она сразу перестает получать сообщения, закрытие соединения
+     * выполняется в отдельном пуле, чтобы не блокировать вызывающий поток.
+     * Закрытие прерывает зависшую отправку и освобождает поток отправителя.
+     */
+    private void evict(Outbound outbound, String reason, CloseStatus status) {
+        if (!unregister(outbound)) {
+            return;
+        }
+        meterRegistry.counter("art2art.ws.sessions.evicted", "reason", reason).increment();
+        logger.info("WebSocket сессия {} пользователя {} закрыта: {}", outbound.session.getId(), outbound.userId, reason);
+        try {
+            closer.execute(() -> {
+                try {
+                    outbound.session.close(status);
+                } catch (Exception ex) {
+                    logger.debug(ex.getLocalizedMessage());
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Пул остановлен при завершении приложения, сессии закрывает контейнер
+            logger.debug(ex.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Удаление сессии из реестра
+     *
+     * @return false, если сессия уже была удалена
+     */
+    private boolean unregister(Outbound outbound) {
+        if (!outbound.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        outbound.queue.clear();
+        sessionsById.remove(outbound.session.getId(), outbound);
+        // Пустой набор удаляется атомарно, чтобы не потерять сессию, добавленную параллельно
+        sessionsByUser.computeIfPresent(outbound.userId, (id, sessions) -> {
+            sessions.remove(outbound);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        return true;
+    }
+
+    private static Long getUserId(WebSocketSession session) {
+        return session.getAttributes().get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE) instanceof Long userId ? userId : null;
+    }
+
+    /**
+     * Исходящая очередь одной сессии. Разбирается не более чем одним потоком пула одновременно.
+     */
+    private final class Outbound {
+        private final WebSocketSession session;
+        private final Long userId;
+        private final BlockingQueue<WebSocketMessage<?>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /** Начало текущей отправки (System.nanoTime), 0 если отправки нет */
+        private volatile long sendStartedAt;
+        private volatile long lastSeenAt = System.nanoTime();
+
+        Outbound(WebSocketSession session, Long userId) {
+            this.session = session;
+            this.userId = userId;
+        }
+
+        boolean offer(WebSocketMessage<?> message) {
+            if (closed.get()) {
+                return true;
+            }
+            if (!queue.offer(message)) {
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        boolean isStuck(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > sendTimeLimitNanos;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    // Пул остановлен при завершении приложения
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
             try {
-                if (session.isOpen()) {
-                    session.sendMessage(new TextMessage(message));
+                WebSocketMessage<?> message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    if (!send(message)) {
+                        return;
+                    }
                 }
+            } finally {
+                draining.set(false);
+                // Сообщение могло попасть в очередь после последнего poll, но до сброса флага
+                if (!queue.isEmpty() && !closed.get()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private boolean send(WebSocketMessage<?> message) {
+            if (!session.isOpen()) {
+                unregister(this);
+                return false;
+            }
+            long startedAt = System.nanoTime();
+            sendStartedAt = startedAt;
+            try {
+                session.sendMessage(message);
+                return true;
             } catch (Exception ex) {
                 logger.warn(ex.getLocalizedMessage());
+                evict(this, "error", CloseStatus.SERVER_ERROR);
+                return false;
+            } finally {
+                sendStartedAt = 0;
+                sendTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package org.itmo.isLab1.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Конфигурация пулов потоков для операций с внешними сервисами
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+    /**
+     * Пул для параллельной загрузки медиафайлов в хранилище.
+     * Размер пула ограничивает число одновременных соединений с хранилищем со всех запросов,
+     * при заполненной очереди задача выполняется в вызывающем потоке.
+     *
+     * @param threads  количество потоков
+     * @param capacity размер очереди
+     * @return пул потоков
+     */
+    @Bean(name = "mediaUploadExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor mediaUploadExecutor(
+        @Value("${app.media.upload.threads:8}") int threads,
+        @Value("${app.media.upload.queue-capacity:100}") int capacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacity);
+        executor.setThreadNamePrefix("media-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Пул для построения уменьшенных копий изображений.
+     * Обработка изображения занимает процессор и память, поэтому пул небольшой;
+     * задачи сверх очереди отклоняются и подбираются периодической повторной обработкой.
+     *
+     * @param threads  количество потоков
+     * @param capacity размер очереди
+     * @return пул потоков
+     */
+    @Bean(name = "mediaDerivativeExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor mediaDerivativeExecutor(
+        @Value("${app.media.derivatives.threads:2}") int threads,
+        @Value("${app.media.derivatives.queue-capacity:100}") int capacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacity);
+        executor.setThreadNamePrefix("media-derivative-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Поток для плановой сверки хранилища.
+     * Сверка большого бакета идет часами, в общем пуле планировщика она задержала бы
+     * остальные периодические задачи. Запуск, пришедший во время сверки, отклоняется.
+     *
+     * @return пул из одного потока
+     */
+    @Bean(name = "mediaReconcileExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor mediaReconcileExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("media-reconcile-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
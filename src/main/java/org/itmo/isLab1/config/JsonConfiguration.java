@@ -9,6 +9,8 @@ import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 
 import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeDeserializer;
 import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeSerializer;
+import org.itmo.isLab1.common.utils.json.RawJsonDeserializer;
+import org.itmo.isLab1.common.utils.json.RawJsonSerializer;
 import org.openapitools.jackson.nullable.JsonNullableModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,11 +36,13 @@ public class JsonConfiguration {
         builder.deserializers(new LocalDateDeserializer(dateFormatter));
         builder.deserializers(new LocalDateTimeDeserializer(dateTimeFormatter));
         builder.deserializers(new ZonedDateTimeDeserializer());
+        builder.deserializers(new RawJsonDeserializer());
 
         // serializers
         builder.serializers(new LocalDateSerializer(dateFormatter));
         builder.serializers(new LocalDateTimeSerializer(dateTimeFormatter));
         builder.serializers(new ZonedDateTimeSerializer());
+        builder.serializers(new RawJsonSerializer());
 
         builder.modulesToInstall(new JsonNullableModule());
 
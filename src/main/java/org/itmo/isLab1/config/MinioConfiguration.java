@@ -1,16 +1,20 @@
 package org.itmo.isLab1.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.itmo.isLab1.common.minIO.MultipartMinioClient;
 
 /**
  * Конфигурация MinIO клиента
  */
 @Slf4j
 @Configuration
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "minio", matchIfMissing = true)
 public class MinioConfiguration {
 
     @Value("${spring.minio.url}")
@@ -37,4 +41,18 @@ public class MinioConfiguration {
                 .build();
     }
 
-}
\ No newline at end of file
+    /**
+     * Создает клиент для возобновляемой multipart загрузки
+     *
+     * @return клиент с доступом к операциям multipart upload
+     */
+    @Bean
+    public MultipartMinioClient multipartMinioClient() {
+        return new MultipartMinioClient(
+                MinioAsyncClient.builder()
+                        .endpoint(url)
+                        .credentials(accessKey, secretKey)
+                        .build()
+        );
+    }
+}
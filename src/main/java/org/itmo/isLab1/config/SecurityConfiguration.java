@@ -64,6 +64,8 @@ public class SecurityConfiguration {
                 corsConfiguration.setMaxAge(10L);
                 corsConfiguration.addExposedHeader("X-Response-Uuid");
                 corsConfiguration.addExposedHeader("X-Total-Count");
+                corsConfiguration.addExposedHeader("ETag");
+                corsConfiguration.addExposedHeader("Content-Range");
                 return corsConfiguration;
             }))
             .authorizeHttpRequests(request -> {
@@ -90,11 +92,22 @@ public class SecurityConfiguration {
                 request.requestMatchers("/api/residences/me/**").hasRole("RESIDENCE_ADMIN");
 
                 request.requestMatchers("/api/admin/validation-requests/**").hasRole("SUPERADMIN");
+                request.requestMatchers("/api/admin/media/**").hasRole("SUPERADMIN");
+
+                // Публичная отдача содержимого медиафайлов
+                request.requestMatchers(HttpMethod.GET, "/api/media/*/content").permitAll();
+
+                // Объекты локального хранилища, доступ проверяется подписью ссылки
+                request.requestMatchers(HttpMethod.GET, "/api/storage/objects/**").permitAll()
+                       .requestMatchers(HttpMethod.PUT, "/api/storage/objects/**").permitAll();
 
                 request.requestMatchers("/api/experts**").hasRole("RESIDENCE_ADMIN");
 
                 request.requestMatchers("/api/notifications/**").authenticated();
 
+                // Метрики и состояние приложения
+                request.requestMatchers("/actuator/**").hasRole("SUPERADMIN");
+
                 // Всё остальное - deny
                 request.anyRequest().denyAll();
             })
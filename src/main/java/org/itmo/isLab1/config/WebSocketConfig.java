@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.itmo.isLab1.common.ws.JwtHandshakeInterceptor;
 import org.itmo.isLab1.common.ws.WebSocketHandler;
 
 @Configuration
@@ -12,11 +13,13 @@ import org.itmo.isLab1.common.ws.WebSocketHandler;
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketConfigurer {
     private final WebSocketHandler webSocketHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry
         .addHandler(webSocketHandler, "/ws")
+        .addInterceptors(jwtHandshakeInterceptor)
         .setAllowedOrigins(
             "http://localhost:3000", 
             "http://localhost:5000",
@@ -37,7 +37,6 @@ public class ExpertService {
 
     @Transactional
     public void setExpertToProgram(Long expertId, Long programId) {
-        User currentUser = userService.getCurrentUser();
-        expertRepository.assignExpertToProgram(programId, expertId, currentUser.getId());
+        expertRepository.assignExpertToProgram(programId, expertId, userService.getCurrentUserId());
     }
 }
@@ -3,8 +3,8 @@ package org.itmo.isLab1.notifications.controller;
 import lombok.RequiredArgsConstructor;
 
 import org.itmo.isLab1.notifications.dto.NotificationDto;
+import org.itmo.isLab1.notifications.dto.NotificationFeedDto;
 import org.itmo.isLab1.notifications.service.NotificationService;
-import org.itmo.isLab1.users.User;
 import org.itmo.isLab1.users.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -33,11 +33,27 @@ public class NotificationController {
     @GetMapping
     public ResponseEntity<Page<NotificationDto>> getNotifications(
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        User currentUser = userService.getCurrentUser();
-        Page<NotificationDto> notifications = notificationService.getNotifications(currentUser.getId(), pageable);
+        Long currentUserId = userService.getCurrentUserId();
+        Page<NotificationDto> notifications = notificationService.getNotifications(currentUserId, pageable);
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Получение ленты уведомлений текущего пользователя с курсорной пагинацией
+     *
+     * @param cursor курсор из предыдущего ответа, для первой порции не передается
+     * @param size   размер порции
+     * @return уведомления и курсор следующей порции
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<NotificationFeedDto> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        Long currentUserId = userService.getCurrentUserId();
+        NotificationFeedDto feed = notificationService.getFeed(currentUserId, cursor, size);
+        return ResponseEntity.ok(feed);
+    }
+
     /**
      * Получение количества непрочитанных уведомлений текущего пользователя
      *
@@ -45,8 +61,8 @@ public class NotificationController {
      */
     @GetMapping("/unread-count")
     public ResponseEntity<Long> getUnreadCount() {
-        User currentUser = userService.getCurrentUser();
-        long unreadCount = notificationService.getUnreadCount(currentUser.getId());
+        Long currentUserId = userService.getCurrentUserId();
+        long unreadCount = notificationService.getUnreadCount(currentUserId);
         return ResponseEntity.ok(unreadCount);
     }
 
@@ -57,8 +73,8 @@ public class NotificationController {
      */
     @PatchMapping("/read-all")
     public ResponseEntity<Void> markAllAsRead() {
-        User currentUser = userService.getCurrentUser();
-        notificationService.markAllAsRead(currentUser.getId());
+        Long currentUserId = userService.getCurrentUserId();
+        notificationService.markAllAsRead(currentUserId);
         return ResponseEntity.noContent().build();
     }
 
@@ -70,8 +86,8 @@ public class NotificationController {
      */
     @PatchMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        User currentUser = userService.getCurrentUser();
-        notificationService.markAsRead(id, currentUser.getId());
+        Long currentUserId = userService.getCurrentUserId();
+        notificationService.markAsRead(id, currentUserId);
         return ResponseEntity.noContent().build();
     }
 
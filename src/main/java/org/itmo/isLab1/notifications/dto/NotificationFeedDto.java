@@ -0,0 +1,22 @@
+package org.itmo.isLab1.notifications.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Порция ленты уведомлений при курсорной пагинации
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFeedDto {
+    private List<NotificationDto> items;
+
+    /** Курсор следующей порции, null если уведомлений больше нет */
+    private String nextCursor;
+}
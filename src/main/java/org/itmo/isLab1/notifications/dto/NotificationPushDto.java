@@ -0,0 +1,30 @@
+package org.itmo.isLab1.notifications.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.itmo.isLab1.common.ws.WebSocketDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Сообщение о новом уведомлении, отправляемое пользователю по WebSocket
+ */
+@Data
+@AllArgsConstructor
+public class NotificationPushDto implements WebSocketDTO {
+    public static final String TYPE = "notification";
+
+    private NotificationDto notification;
+    private long unreadCount;
+
+    @Override
+    public Map<String, Object> getPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", TYPE);
+        payload.put("notification", notification);
+        payload.put("unreadCount", unreadCount);
+        return payload;
+    }
+}
@@ -0,0 +1,12 @@
+package org.itmo.isLab1.notifications.event;
+
+import org.itmo.isLab1.notifications.dto.NotificationDto;
+
+/**
+ * Событие создания уведомления, доставляется получателю после коммита транзакции
+ *
+ * @param userId       ID получателя
+ * @param notification созданное уведомление
+ */
+public record NotificationCreatedEvent(Long userId, NotificationDto notification) {
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,8 +17,88 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Page<Notification> findByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Первая порция ленты уведомлений пользователя, от новых к старым
+     *
+     * @param userId ID пользователя
+     * @param limit  максимальное количество уведомлений
+     * @return уведомления
+     */
+    @Query(
+        value = """
+            select *
+            from art2art_notifications
+            where user_id = :userId
+            order by created_at desc, id desc
+            limit :limit
+            """,
+        nativeQuery = true
+    )
+    List<Notification> findFeed(
+        @Param("userId") Long userId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Следующая порция ленты уведомлений пользователя после позиции (createdAt, id).
+     * Сравнение строк целиком позволяет читать индекс (user_id, created_at, id) с нужной позиции.
+     *
+     * @param userId    ID пользователя
+     * @param createdAt время создания последнего полученного уведомления в формате ISO,
+     *                  передается строкой, чтобы значение не сдвигалось при привязке параметра
+     * @param id        ID последнего полученного уведомления
+     * @param limit     максимальное количество уведомлений
+     * @return уведомления
+     */
+    @Query(
+        value = """
+            select *
+            from art2art_notifications
+            where user_id = :userId
+              and (created_at, id) < (cast(:createdAt as timestamp), :id)
+            order by created_at desc, id desc
+            limit :limit
+            """,
+        nativeQuery = true
+    )
+    List<Notification> findFeedAfter(
+        @Param("userId") Long userId,
+        @Param("createdAt") String createdAt,
+        @Param("id") Long id,
+        @Param("limit") int limit
+    );
+
     long countByUserIdAndReadAtIsNull(Long userId);
 
+    /**
+     * Количество непрочитанных уведомлений из счетчика, поддерживаемого триггерами
+     *
+     * @param userId ID пользователя
+     * @return значение счетчика, пусто если у пользователя еще не было уведомлений
+     */
+    @Query(
+        value = """
+            select unread_count
+            from art2art_notification_counters
+            where user_id = :userId
+            """,
+        nativeQuery = true
+    )
+    Optional<Integer> findUnreadCount(@Param("userId") Long userId);
+
+    /**
+     * Сверка счетчиков непрочитанных уведомлений с фактическими данными
+     *
+     * @return количество исправленных счетчиков
+     */
+    @Query(
+        value = """
+            select reconcile_notification_counters()
+            """,
+        nativeQuery = true
+    )
+    Integer reconcileUnreadCounters();
+
     Optional<Notification> findByIdAndUserId(Long id, Long userId);
 
     @Modifying
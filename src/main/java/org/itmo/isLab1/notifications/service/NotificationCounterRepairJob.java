@@ -0,0 +1,34 @@
+package org.itmo.isLab1.notifications.service;
+
+import org.itmo.isLab1.notifications.repository.NotificationRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Периодическая сверка счетчиков непрочитанных уведомлений.
+ * Счетчики поддерживаются триггерами и расходиться не должны, сверка исправляет
+ * последствия ручных правок данных в обход триггеров.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationCounterRepairJob {
+
+    private final NotificationRepository notificationRepository;
+
+    @Scheduled(
+        fixedDelayString = "${app.notifications.counter-repair.interval:3600000}",
+        initialDelayString = "${app.notifications.counter-repair.interval:3600000}"
+    )
+    @Transactional
+    public void repair() {
+        Integer fixed = notificationRepository.reconcileUnreadCounters();
+        if (fixed != null && fixed > 0) {
+            log.warn("Исправлено счетчиков непрочитанных уведомлений: {}", fixed);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.itmo.isLab1.notifications.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.itmo.isLab1.notifications.entity.Notification;
+
+/**
+ * Позиция в ленте уведомлений: время создания и id последнего отданного уведомления.
+ * Клиенту передается в виде непрозрачной base64url строки.
+ *
+ * @param createdAt время создания в том виде, в котором оно хранится в БД (Hibernate работает с БД в UTC)
+ * @param id        ID уведомления
+ */
+record NotificationCursor(LocalDateTime createdAt, Long id) {
+
+    /**
+     * Курсор, указывающий на уведомление
+     */
+    static NotificationCursor of(Notification notification) {
+        // created_at хранится без часового пояса, Hibernate читает его как время UTC
+        LocalDateTime createdAt = notification.getCreatedAt()
+            .withZoneSameInstant(ZoneOffset.UTC)
+            .toLocalDateTime();
+        return new NotificationCursor(createdAt, notification.getId());
+    }
+
+    /**
+     * Разбор курсора, полученного от клиента
+     *
+     * @param value строка курсора
+     * @return курсор
+     * @throws IllegalArgumentException если курсор поврежден
+     */
+    static NotificationCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long epochMillis = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+            return new NotificationCursor(createdAt, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Некорректный курсор уведомлений", e);
+        }
+    }
+
+    String encode() {
+        long epochMillis = createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        String raw = epochMillis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,30 @@
+package org.itmo.isLab1.notifications.service;
+
+import org.itmo.isLab1.common.ws.WebSocketHandler;
+import org.itmo.isLab1.notifications.dto.NotificationPushDto;
+import org.itmo.isLab1.notifications.event.NotificationCreatedEvent;
+import org.itmo.isLab1.notifications.repository.NotificationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Доставка новых уведомлений в WebSocket сессии получателя.
+ * Отправка происходит только после коммита, чтобы клиент не увидел уведомление,
+ * которого нет в БД, и сразу получил актуальный счетчик непрочитанных.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationPushListener {
+
+    private final WebSocketHandler webSocketHandler;
+    private final NotificationRepository notificationRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        long unreadCount = notificationRepository.findUnreadCount(event.userId()).orElse(0);
+        webSocketHandler.notifyUser(event.userId(), new NotificationPushDto(event.notification(), unreadCount));
+    }
+}
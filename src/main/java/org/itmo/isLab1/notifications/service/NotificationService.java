@@ -4,18 +4,23 @@ import lombok.RequiredArgsConstructor;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
 import org.itmo.isLab1.notifications.dto.NotificationCreateDto;
 import org.itmo.isLab1.notifications.dto.NotificationDto;
+import org.itmo.isLab1.notifications.dto.NotificationFeedDto;
 import org.itmo.isLab1.notifications.entity.Notification;
 import org.itmo.isLab1.notifications.entity.NotificationCategory;
+import org.itmo.isLab1.notifications.event.NotificationCreatedEvent;
 import org.itmo.isLab1.notifications.mapper.NotificationMapper;
 import org.itmo.isLab1.notifications.repository.NotificationRepository;
 import org.itmo.isLab1.users.Role;
 import org.itmo.isLab1.users.User;
 import org.itmo.isLab1.users.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
@@ -23,9 +28,13 @@ import jakarta.persistence.PersistenceContext;
 @RequiredArgsConstructor
 public class NotificationService {
 
+    /** Максимальный размер порции ленты уведомлений */
+    public static final int MAX_FEED_SIZE = 100;
+
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -47,6 +56,7 @@ public class NotificationService {
                 dto.getLink()
             );
 
+        publishCreated(user.getId(), notificationId);
         return notificationId;
     }
 
@@ -54,7 +64,7 @@ public class NotificationService {
     public Long sendNotification(
         String email, String message, NotificationCategory category, String link) {
         // Проверяем, что пользователь существует
-        userRepository.findByUsername(email)
+        User user = userRepository.findByUsername(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Пользователь с email " + email + " не найден"));
 
         Long notificationId = notificationRepository.createNotification(
@@ -64,6 +74,7 @@ public class NotificationService {
             link
         );
 
+        publishCreated(user.getId(), notificationId);
         return notificationId;
     }
 
@@ -80,13 +91,51 @@ public class NotificationService {
     }
 
     /**
-     * Получение количества непрочитанных уведомлений пользователя
+     * Получение ленты уведомлений пользователя с курсорной пагинацией.
+     * В отличие от страниц не считает общее количество и не пропускает строки через OFFSET.
+     *
+     * @param userId идентификатор пользователя
+     * @param cursor курсор из предыдущего ответа или null для первой порции
+     * @param size   размер порции
+     * @return уведомления и курсор следующей порции
+     * @throws IllegalArgumentException если курсор поврежден или размер вне допустимых границ
+     */
+    @Transactional(readOnly = true)
+    public NotificationFeedDto getFeed(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("Размер порции должен быть от 1 до " + MAX_FEED_SIZE);
+        }
+
+        // Запрашиваем на одно уведомление больше, чтобы узнать, есть ли следующая порция
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findFeed(userId, size + 1);
+        } else {
+            NotificationCursor position = NotificationCursor.decode(cursor);
+            notifications = notificationRepository.findFeedAfter(userId, position.createdAt().toString(), position.id(), size + 1);
+        }
+
+        String nextCursor = null;
+        if (notifications.size() > size) {
+            notifications = notifications.subList(0, size);
+            nextCursor = NotificationCursor.of(notifications.get(size - 1)).encode();
+        }
+
+        return NotificationFeedDto.builder()
+            .items(notifications.stream().map(notificationMapper::toDto).toList())
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    /**
+     * Получение количества непрочитанных уведомлений пользователя.
+     * Читается счетчик по первичному ключу, без подсчета строк уведомлений.
      *
      * @param userId идентификатор пользователя
      * @return количество непрочитанных уведомлений
      */
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndReadAtIsNull(userId);
+        return notificationRepository.findUnreadCount(userId).orElse(0);
     }
 
     /**
@@ -124,4 +173,13 @@ public class NotificationService {
     public void markAllAsRead(Long userId) {
         notificationRepository.markAllAsRead(userId);
     }
+
+    /**
+     * Публикация события для доставки уведомления получателю после коммита
+     */
+    private void publishCreated(Long userId, Long notificationId) {
+        notificationRepository.findById(notificationId)
+            .map(notificationMapper::toDto)
+            .ifPresent(notification -> eventPublisher.publishEvent(new NotificationCreatedEvent(userId, notification)));
+    }
 }
@@ -5,17 +5,24 @@ import lombok.RequiredArgsConstructor;
 
 import org.itmo.isLab1.applications.dto.ApplicationCreateDto;
 import org.itmo.isLab1.applications.service.ApplicationService;
+import org.itmo.isLab1.common.search.SearchHitDto;
+import org.itmo.isLab1.common.utils.http.ETags;
 import org.itmo.isLab1.programs.dto.*;
 import org.itmo.isLab1.programs.service.ProgramService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/api/programs")
 @RequiredArgsConstructor
@@ -24,6 +31,9 @@ public class ProgramController {
     private final ProgramService programService; 
     private final ApplicationService applicationService; 
 
+    @Value("${app.http.detail-cache-max-age:0s}")
+    private Duration detailCacheMaxAge;
+
     /**
      * Возвращает пагинированный список программ
      *
@@ -38,16 +48,55 @@ public class ProgramController {
     }
 
     /**
-     * Возвращает программу по id
+     * Полнотекстовый поиск по названию и описанию опубликованных программ с открытым приемом заявок
+     *
+     * @param q        поисковый запрос, поддерживаются кавычки, OR и минус
+     * @param pageable параметры пагинации, выдача упорядочена по релевантности
+     * @return страница найденных программ с фрагментами текста
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<SearchHitDto<ProgramPreviewDto>>> searchPrograms(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(programService.searchPrograms(q, pageable));
+    }
+
+    /**
+     * Фильтрация опубликованных программ с открытым приемом заявок
      *
+     * @param filter   цели и условия в виде JSON объектов, диапазоны длительности, квот и дедлайна
      * @param pageable параметры пагинации
-     * @return страница с программами резиденции
+     * @return страница программ и количество программ по значениям целей и условий
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<ProgramFilterResultDto> filterPrograms(
+            @ModelAttribute ProgramFilterDto filter,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(programService.filterPrograms(filter, pageable));
+    }
+
+    /**
+     * Возвращает программу по id. Если версия у клиента актуальна, отвечает 304 без загрузки программы.
+     *
+     * @param id          ID программы
+     * @param ifNoneMatch ETag версии, сохраненной у клиента
+     * @return программа или 304
      */
     @GetMapping("/{id}")
     public ResponseEntity<ProgramDto> getProgramById(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // ETag берется до загрузки программы: если она изменится между запросами,
+        // клиент получит новые данные со старым ETag и заберет их повторно при следующей проверке
+        String etag = programService.getProgramETag(id);
+        CacheControl cacheControl = CacheControl.maxAge(detailCacheMaxAge).cachePublic().mustRevalidate();
+        if (ETags.matches(ifNoneMatch, etag)) {
+            programService.recordProgramView(id);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
         ProgramDto program = programService.getProgramById(id);
-        return ResponseEntity.ok(program);
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(program);
     }
 
 
@@ -1,8 +1,8 @@
 package org.itmo.isLab1.programs.dto;
 
 import java.time.LocalDate;
-import java.util.Map;
 
+import org.itmo.isLab1.common.utils.json.RawJson;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -25,9 +25,9 @@ public class ProgramCreateDto {
     @Size(max = 5000)
     private String description;
 
-    private Map<String, Object> goals;
+    private RawJson goals;
 
-    private Map<String, Object> conditions;
+    private RawJson conditions;
 
     @NotNull(message = "Дедлайн подачи не может быть пустым")
     private LocalDate deadlineApply;
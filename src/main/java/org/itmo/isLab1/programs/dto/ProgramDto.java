@@ -2,7 +2,8 @@ package org.itmo.isLab1.programs.dto;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.util.Map;
+
+import org.itmo.isLab1.common.utils.json.RawJson;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
@@ -19,8 +20,8 @@ public class ProgramDto {
     private ProgramPreviewDto previewDto;
 
     private String description;
-    private Map<String, Object> goals;
-    private Map<String, Object> conditions;
+    private RawJson goals;
+    private RawJson conditions;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate deadlineReview;
@@ -0,0 +1,19 @@
+package org.itmo.isLab1.programs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Количество программ с заданным значением ключа целей или условий
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgramFacetDto {
+    private String key;
+    private Object value;
+    private Long count;
+}
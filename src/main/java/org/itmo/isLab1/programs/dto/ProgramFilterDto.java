@@ -0,0 +1,44 @@
+package org.itmo.isLab1.programs.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Фильтр публичного каталога программ. Незаданные поля не ограничивают выборку,
+ * границы диапазонов включаются.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgramFilterDto {
+
+    /** JSON объект, который должен содержаться в целях программы, например {"format":"online"} */
+    private String goals;
+
+    /** JSON объект, который должен содержаться в условиях программы */
+    private String conditions;
+
+    private Integer durationMin;
+    private Integer durationMax;
+
+    private Integer budgetMin;
+    private Integer budgetMax;
+
+    private Integer peopleMin;
+    private Integer peopleMax;
+
+    /** Начало окна дедлайна подачи, не раньше текущей даты */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineFrom;
+
+    /** Конец окна дедлайна подачи */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineTo;
+}
@@ -0,0 +1,23 @@
+package org.itmo.isLab1.programs.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Страница отфильтрованного каталога и значения фасетов по всем подходящим программам
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgramFilterResultDto {
+    private Page<ProgramPreviewDto> programs;
+    private List<ProgramFacetDto> goalFacets;
+    private List<ProgramFacetDto> conditionFacets;
+}
@@ -12,4 +12,5 @@ import lombok.NoArgsConstructor;
 public class ProgramStatsDto {
     private Integer viewsCount;
     private Integer applicationsCount;
+    private Long uniqueVisitors;
 }
@@ -1,8 +1,8 @@
 package org.itmo.isLab1.programs.dto;
 
 import java.time.LocalDate;
-import java.util.Map;
 
+import org.itmo.isLab1.common.utils.json.RawJson;
 import org.openapitools.jackson.nullable.JsonNullable;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -26,9 +26,9 @@ public class ProgramUpdateDto {
     @Size(max = 5000)
     private JsonNullable<String> description;
 
-    private JsonNullable<Map<String, Object>> goals;
+    private JsonNullable<RawJson> goals;
 
-    private JsonNullable<Map<String, Object>> conditions;
+    private JsonNullable<RawJson> conditions;
 
     @NotNull(message = "Дедлайн подачи не может быть пустым")
     private JsonNullable<LocalDate> deadlineApply;
@@ -13,11 +13,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 import org.itmo.isLab1.common.entity.BaseEntity;
 import org.itmo.isLab1.common.utils.datetime.ZonedDateTimeConverter;
+import org.itmo.isLab1.common.utils.json.RawJson;
+import org.itmo.isLab1.common.utils.json.RawJsonConverter;
 import org.itmo.isLab1.residences.entity.ResidenceDetails;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.util.Map;
 
 @Data
 @Entity
@@ -46,11 +47,13 @@ public class Program implements BaseEntity {
 
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "goals", columnDefinition = "jsonb")
-    private Map<String, Object> goals;
+    @Convert(converter = RawJsonConverter.class)
+    private RawJson goals;
 
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "conditions", columnDefinition = "jsonb")
-    private Map<String, Object> conditions;
+    @Convert(converter = RawJsonConverter.class)
+    private RawJson conditions;
 
     @Column(name = "deadline_apply", nullable = false)
     @NotNull(message = "Deadline apply is required")
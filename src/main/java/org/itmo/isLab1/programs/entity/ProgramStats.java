@@ -34,6 +34,11 @@ public class ProgramStats {
     @Builder.Default
     private Integer applicationsCount = 0;
 
+    /** Скетч уникальных посетителей за все время, см. HyperLogLog */
+    @ToString.Exclude
+    @Column(name = "visitors_sketch")
+    private byte[] visitorsSketch;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     @Convert(converter = ZonedDateTimeConverter.class)
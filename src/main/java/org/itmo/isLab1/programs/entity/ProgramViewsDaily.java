@@ -0,0 +1,42 @@
+package org.itmo.isLab1.programs.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Дневной агрегат просмотров программы, заполняется функцией rollup_program_views
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ProgramViewsDaily.Key.class)
+@Table(name = "art2art_program_views_daily")
+public class ProgramViewsDaily {
+    @Id
+    @Column(name = "program_id", nullable = false)
+    private Long programId;
+
+    @Id
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "views_count", nullable = false)
+    private Long viewsCount;
+
+    /** Скетч уникальных посетителей за день, см. HyperLogLog */
+    @ToString.Exclude
+    @Column(name = "visitors_sketch")
+    private byte[] visitorsSketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long programId;
+        private LocalDate bucketDate;
+    }
+}
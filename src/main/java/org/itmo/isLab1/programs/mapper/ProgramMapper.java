@@ -2,6 +2,7 @@ package org.itmo.isLab1.programs.mapper;
 
 import org.itmo.isLab1.common.mapper.JsonNullableMapper;
 import org.itmo.isLab1.common.mapper.ReferenceMapper;
+import org.itmo.isLab1.common.views.HyperLogLog;
 import org.itmo.isLab1.programs.dto.ProgramCreateDto;
 import org.itmo.isLab1.programs.dto.ProgramDto;
 import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
@@ -20,10 +21,12 @@ import org.mapstruct.ReportingPolicy;
     uses = { JsonNullableMapper.class, ReferenceMapper.class },
     nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
     componentModel = MappingConstants.ComponentModel.SPRING,
-    unmappedTargetPolicy = ReportingPolicy.IGNORE
+    unmappedTargetPolicy = ReportingPolicy.IGNORE,
+    imports = HyperLogLog.class
 )
 public interface ProgramMapper {
 
+    @Mapping(target = "uniqueVisitors", expression = "java(HyperLogLog.estimate(entity.getVisitorsSketch()))")
     ProgramStatsDto toStatDto(ProgramStats entity);
 
     @Mapping(target = "previewDto", expression = "java(toPreviewDto(entity))")
@@ -0,0 +1,51 @@
+package org.itmo.isLab1.programs.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.itmo.isLab1.programs.dto.ProgramFilterDto;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Фильтрация каталога программ запросами, собираемыми из заданных условий фильтра
+ */
+public interface ProgramFilterRepository {
+
+    /**
+     * ID опубликованных программ, подходящих под фильтр
+     *
+     * @param filter   фильтр, цели и условия - корректные JSON объекты
+     * @param today    текущая дата, программы с более ранним дедлайном не выбираются
+     * @param pageable параметры пагинации и сортировки
+     * @return ID программ страницы в порядке сортировки
+     * @throws IllegalArgumentException если сортировка по полю не поддерживается
+     */
+    List<Long> findFilteredIds(ProgramFilterDto filter, LocalDate today, Pageable pageable);
+
+    /**
+     * Количество опубликованных программ, подходящих под фильтр
+     */
+    long countFiltered(ProgramFilterDto filter, LocalDate today);
+
+    /**
+     * Количество подходящих под фильтр программ по каждому скалярному значению ключей целей и условий.
+     * Обе группы фасетов считаются одним запросом.
+     *
+     * @param filter фильтр
+     * @param today  текущая дата
+     * @param limit  максимальное количество значений на ключ, самые частые
+     * @return фасеты по убыванию количества
+     */
+    List<FacetRow> findFacets(ProgramFilterDto filter, LocalDate today, int limit);
+
+    /**
+     * Строка фасета
+     *
+     * @param field goals или conditions
+     * @param key   ключ верхнего уровня
+     * @param value значение в виде JSON
+     * @param count количество программ
+     */
+    record FacetRow(String field, String key, String value, long count) {
+    }
+}
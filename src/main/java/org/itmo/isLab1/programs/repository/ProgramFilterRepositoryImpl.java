@@ -0,0 +1,165 @@
+package org.itmo.isLab1.programs.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.itmo.isLab1.programs.dto.ProgramFilterDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * В запрос попадают только заданные условия: так планировщик видит конкретные предикаты
+ * и использует частичные индексы по опубликованным программам, а не общий план с проверками на null.
+ */
+class ProgramFilterRepositoryImpl implements ProgramFilterRepository {
+
+    /** Поля сортировки и соответствующие им столбцы */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "createdAt", "p.created_at",
+        "deadlineApply", "p.deadline_apply",
+        "title", "p.title",
+        "id", "p.id"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findFilteredIds(ProgramFilterDto filter, LocalDate today, Pageable pageable) {
+        Where where = Where.of(filter, today);
+        Query query = entityManager.createNativeQuery(
+            "select p.id from art2art_programs p where " + where.sql()
+                + " order by " + orderBy(pageable.getSort())
+                + " limit :limit offset :offset",
+            Long.class
+        );
+        where.bind(query);
+        query.setParameter("limit", pageable.getPageSize());
+        query.setParameter("offset", pageable.getOffset());
+        return query.getResultList();
+    }
+
+    @Override
+    public long countFiltered(ProgramFilterDto filter, LocalDate today) {
+        Where where = Where.of(filter, today);
+        Query query = entityManager.createNativeQuery(
+            "select count(*) from art2art_programs p where " + where.sql(),
+            Long.class
+        );
+        where.bind(query);
+        return (Long) query.getSingleResult();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<FacetRow> findFacets(ProgramFilterDto filter, LocalDate today, int limit) {
+        Where where = Where.of(filter, today);
+        Query query = entityManager.createNativeQuery("""
+            with filtered as (
+                select p.goals, p.conditions
+                from art2art_programs p
+                where %s
+            ),
+            facet as (
+                select 'goals' as field, e.key, e.value, count(*) as cnt
+                from filtered f, jsonb_each(f.goals) e
+                where jsonb_typeof(e.value) in ('string', 'number', 'boolean')
+                group by e.key, e.value
+                union all
+                select 'conditions' as field, e.key, e.value, count(*) as cnt
+                from filtered f, jsonb_each(f.conditions) e
+                where jsonb_typeof(e.value) in ('string', 'number', 'boolean')
+                group by e.key, e.value
+            )
+            select field, key, value::text, cnt
+            from (
+                select facet.*, row_number() over (partition by field, key order by cnt desc, value) as position
+                from facet
+            ) ranked
+            where position <= :facetLimit
+            order by field, key, cnt desc
+            """.formatted(where.sql()));
+        where.bind(query);
+        query.setParameter("facetLimit", limit);
+
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+            .map(row -> new FacetRow(
+                (String) row[0],
+                (String) row[1],
+                (String) row[2],
+                ((Number) row[3]).longValue()
+            ))
+            .toList();
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Сортировка по полю " + order.getProperty() + " не поддерживается");
+            }
+            orders.add(column + (order.isAscending() ? " asc" : " desc"));
+        }
+        if (orders.isEmpty()) {
+            orders.add("p.created_at desc");
+        }
+        // id делает порядок однозначным при совпадении значений
+        orders.add("p.id desc");
+        return String.join(", ", orders);
+    }
+
+    /**
+     * Условия фильтра и значения их параметров
+     */
+    private record Where(List<String> conditions, Map<String, Object> parameters) {
+
+        static Where of(ProgramFilterDto filter, LocalDate today) {
+            Where where = new Where(new ArrayList<>(), new HashMap<>());
+            where.add("p.is_published", null, null);
+
+            LocalDate deadlineFrom = filter.getDeadlineFrom() == null || filter.getDeadlineFrom().isBefore(today)
+                ? today
+                : filter.getDeadlineFrom();
+            where.add("p.deadline_apply >= :deadlineFrom", "deadlineFrom", deadlineFrom);
+            where.add("p.deadline_apply <= :deadlineTo", "deadlineTo", filter.getDeadlineTo());
+
+            where.add("p.goals @> cast(:goals as jsonb)", "goals", filter.getGoals());
+            where.add("p.conditions @> cast(:conditions as jsonb)", "conditions", filter.getConditions());
+
+            where.add("p.duration_days >= :durationMin", "durationMin", filter.getDurationMin());
+            where.add("p.duration_days <= :durationMax", "durationMax", filter.getDurationMax());
+            where.add("p.budget_quota >= :budgetMin", "budgetMin", filter.getBudgetMin());
+            where.add("p.budget_quota <= :budgetMax", "budgetMax", filter.getBudgetMax());
+            where.add("p.people_quota >= :peopleMin", "peopleMin", filter.getPeopleMin());
+            where.add("p.people_quota <= :peopleMax", "peopleMax", filter.getPeopleMax());
+            return where;
+        }
+
+        private void add(String condition, String parameter, Object value) {
+            if (parameter == null) {
+                conditions.add(condition);
+            } else if (value != null) {
+                conditions.add(condition);
+                parameters.put(parameter, value);
+            }
+        }
+
+        String sql() {
+            return String.join(" and ", conditions);
+        }
+
+        void bind(Query query) {
+            parameters.forEach(query::setParameter);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.itmo.isLab1.programs.repository;
 
+import org.itmo.isLab1.common.search.SearchHit;
+import org.itmo.isLab1.common.utils.http.ResourceVersion;
+import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
 import org.itmo.isLab1.programs.entity.Program;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,20 +12,136 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProgramRepository extends JpaRepository<Program, Long> {
+public interface ProgramRepository extends JpaRepository<Program, Long>, ProgramFilterRepository {
 
-    Page<Program> findByResidenceId(Long residenceId, Pageable pageable);
+    /**
+     * Карточки программ резиденции. Конструктор DTO в запросе выбирает только столбцы карточки,
+     * без описания и JSONB полей, и не помещает сущности в контекст персистентности.
+     *
+     * @param residenceId ID резиденции
+     * @param pageable    параметры пагинации
+     * @return страница карточек программ
+     */
+    @Query(
+        value = """
+            select new org.itmo.isLab1.programs.dto.ProgramPreviewDto(p.id, p.residence.id, p.title, p.deadlineApply)
+            from Program p
+            where p.residence.id = :residenceId
+            """,
+        countQuery = "select count(p) from Program p where p.residence.id = :residenceId"
+    )
+    Page<ProgramPreviewDto> findPreviewsByResidenceId(@Param("residenceId") Long residenceId, Pageable pageable);
 
     Optional<Program> findById(Long id);
 
     Optional<Program> findByResidenceIdAndId(Long residenceId, Long id);
 
+    /**
+     * Версия программы для условных запросов, без описания и JSONB полей
+     *
+     * @param id ID программы
+     * @return версия, пусто если программа не найдена
+     */
+    @Query("select new org.itmo.isLab1.common.utils.http.ResourceVersion(p.id, p.isPublished, p.updatedAt) from Program p where p.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
     Page<Program> findByIsPublishedTrue(Pageable pageable);
 
-    Page<Program> findByIsPublishedTrueAndDeadlineApplyGreaterThanEqual(LocalDate date, Pageable pageable);
+    /**
+     * Карточки опубликованных программ с дедлайном приема заявок не раньше даты
+     *
+     * @param date     дата
+     * @param pageable параметры пагинации
+     * @return страница карточек программ
+     */
+    @Query(
+        value = """
+            select new org.itmo.isLab1.programs.dto.ProgramPreviewDto(p.id, p.residence.id, p.title, p.deadlineApply)
+            from Program p
+            where p.isPublished = true
+              and p.deadlineApply >= :date
+            """,
+        countQuery = "select count(p) from Program p where p.isPublished = true and p.deadlineApply >= :date"
+    )
+    Page<ProgramPreviewDto> findPublishedPreviews(@Param("date") LocalDate date, Pageable pageable);
+
+    /**
+     * Карточки программ по ID, порядок не гарантируется
+     *
+     * @param ids ID программ
+     * @return карточки найденных программ
+     */
+    @Query("""
+        select new org.itmo.isLab1.programs.dto.ProgramPreviewDto(p.id, p.residence.id, p.title, p.deadlineApply)
+        from Program p
+        where p.id in :ids
+        """)
+    List<ProgramPreviewDto> findPreviewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Полнотекстовый поиск среди опубликованных программ с открытым приемом заявок.
+     * Фрагменты текста строятся только для строк страницы.
+     *
+     * @param query  запрос в синтаксисе websearch_to_tsquery
+     * @param today  текущая дата, программы с более ранним дедлайном не ищутся
+     * @param limit  размер страницы
+     * @param offset смещение страницы
+     * @return найденные программы по убыванию релевантности
+     */
+    @Query(
+        value = """
+            with q as (
+                select websearch_to_tsquery('russian', :query) as tsq
+            ),
+            hit as (
+                select p.id, ts_rank_cd(p.search_vector, q.tsq, 1)::float8 as rank
+                from art2art_programs p, q
+                where p.search_vector @@ q.tsq
+                  and p.is_published
+                  and p.deadline_apply >= :today
+                order by rank desc, p.id desc
+                limit :limit offset :offset
+            )
+            select hit.id,
+                   ts_headline('russian', coalesce(p.description, p.title), q.tsq,
+                               'MaxFragments=2, MinWords=5, MaxWords=20') as snippet,
+                   hit.rank
+            from hit
+            join art2art_programs p on p.id = hit.id
+            cross join q
+            order by hit.rank desc, hit.id desc
+            """,
+        nativeQuery = true
+    )
+    List<SearchHit> search(
+        @Param("query") String query,
+        @Param("today") LocalDate today,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    /**
+     * Количество программ, найденных {@link #search}
+     */
+    @Query(
+        value = """
+            select count(*)
+            from art2art_programs p
+            where p.search_vector @@ websearch_to_tsquery('russian', :query)
+              and p.is_published
+              and p.deadline_apply >= :today
+            """,
+        nativeQuery = true
+    )
+    long countSearch(
+        @Param("query") String query,
+        @Param("today") LocalDate today
+    );
 
     @Query(
         value = """
@@ -11,16 +11,62 @@ import java.util.Optional;
 
 @Repository
 public interface ProgramStatsRepository extends JpaRepository<ProgramStats, Long> {
+    /**
+     * Пакетная запись просмотров программ
+     *
+     * @param programIds id программ в формате массива PostgreSQL, например {1,2,3}
+     * @param counts     количество просмотров для каждой программы в том же порядке
+     */
     @Query(
         value = """
-            select log_program_view(
-                :programId
+            select log_program_views(
+                cast(:programIds as bigint[]),
+                cast(:counts as int[])
             )
             """,
         nativeQuery = true
     )
-    void createProgramViewLog(
-        @Param("programId") Long programId
+    void createProgramViewLogs(
+        @Param("programIds") String programIds,
+        @Param("counts") String counts
+    );
+
+    /**
+     * Перенос сырого лога просмотров программ в часовые и дневные агрегаты
+     *
+     * @param hourlyRetentionDays сколько дней хранить часовые агрегаты
+     * @return количество перенесенных просмотров
+     */
+    @Query(
+        value = """
+            select rollup_program_views(
+                :hourlyRetentionDays
+            )
+            """,
+        nativeQuery = true
+    )
+    Long rollupProgramViews(
+        @Param("hourlyRetentionDays") int hourlyRetentionDays
+    );
+
+    /**
+     * Объединение скетча уникальных посетителей программы с дневным и общим скетчами
+     *
+     * @param programId ID программы
+     * @param sketch    сериализованный скетч HyperLogLog
+     */
+    @Query(
+        value = """
+            select merge_program_visitors(
+                :programId,
+                :sketch
+            )
+            """,
+        nativeQuery = true
+    )
+    void mergeProgramVisitors(
+        @Param("programId") Long programId,
+        @Param("sketch") byte[] sketch
     );
 
     Optional<ProgramStats> findByProgramId(Long programId);
@@ -0,0 +1,14 @@
+package org.itmo.isLab1.programs.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.itmo.isLab1.programs.entity.ProgramViewsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProgramViewsDailyRepository extends JpaRepository<ProgramViewsDaily, ProgramViewsDaily.Key> {
+
+    List<ProgramViewsDaily> findByProgramIdAndBucketDateBetweenOrderByBucketDate(Long programId, LocalDate from, LocalDate to);
+}
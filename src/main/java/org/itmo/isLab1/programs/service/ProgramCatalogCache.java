@@ -0,0 +1,117 @@
+package org.itmo.isLab1.programs.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Кеш страниц публичного каталога программ.
+ * Кешируются только первые страницы с распространенными сортировками, остальные запросы
+ * идут в БД напрямую. Кеш сбрасывается после коммита изменений программ и при смене дня,
+ * когда программы с истекшим дедлайном пропадают из каталога.
+ */
+@Slf4j
+@Component
+public class ProgramCatalogCache {
+
+    /** Поля сортировки, страницы по которым кешируются */
+    private static final Set<String> CACHEABLE_SORT_PROPERTIES = Set.of("createdAt", "deadlineApply", "title", "id");
+
+    private final Cache<Key, Page<ProgramPreviewDto>> pages;
+    private final boolean enabled;
+    private final int maxPages;
+
+    public ProgramCatalogCache(
+        MeterRegistry meterRegistry,
+        @Value("${app.programs.catalog-cache.enabled:true}") boolean enabled,
+        @Value("${app.programs.catalog-cache.ttl:60s}") Duration ttl,
+        @Value("${app.programs.catalog-cache.max-size:1000}") long maxSize,
+        @Value("${app.programs.catalog-cache.max-pages:5}") int maxPages
+    ) {
+        this.enabled = enabled;
+        this.maxPages = maxPages;
+        this.pages = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "programCatalog");
+    }
+
+    /**
+     * Получение страницы каталога из кеша либо ее загрузка.
+     * Параллельные промахи по одной странице загружают ее один раз.
+     *
+     * @param pageable параметры пагинации
+     * @param loader   загрузка страницы из БД
+     * @return страница каталога
+     */
+    public Page<ProgramPreviewDto> get(Pageable pageable, Supplier<Page<ProgramPreviewDto>> loader) {
+        if (!isCacheable(pageable)) {
+            return loader.get();
+        }
+        Key key = new Key(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), LocalDate.now());
+        return pages.get(key, k -> loader.get());
+    }
+
+    /**
+     * Сброс каталога: сразу и повторно после завершения текущей транзакции,
+     * чтобы параллельный запрос не вернул в кеш данные до коммита
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    pages.invalidateAll();
+                }
+            });
+        }
+        pages.invalidateAll();
+    }
+
+    /**
+     * Сброс каталога при смене дня: программы с истекшим дедлайном больше не показываются
+     */
+    @Scheduled(cron = "${app.programs.catalog-cache.rollover-cron:0 0 0 * * *}")
+    public void rollover() {
+        log.debug("Сброс кеша каталога программ при смене дня");
+        pages.invalidateAll();
+    }
+
+    private boolean isCacheable(Pageable pageable) {
+        if (!enabled || pageable.isUnpaged() || pageable.getPageNumber() >= maxPages) {
+            return false;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!CACHEABLE_SORT_PROPERTIES.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ключ страницы. День входит в ключ, чтобы после полуночи не отдать страницу со вчерашним фильтром по дедлайну.
+     */
+    private record Key(int page, int size, Sort sort, LocalDate day) {
+    }
+}
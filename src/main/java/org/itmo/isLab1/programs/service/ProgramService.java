@@ -3,40 +3,177 @@ package org.itmo.isLab1.programs.service;
 import lombok.RequiredArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.itmo.isLab1.common.errors.PolicyViolationError;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.search.SearchHit;
+import org.itmo.isLab1.common.search.SearchHitDto;
+import org.itmo.isLab1.common.search.SearchQuery;
+import org.itmo.isLab1.common.utils.http.ResourceVersion;
+import org.itmo.isLab1.common.views.ViewRecorder;
 import org.itmo.isLab1.programs.dto.ProgramDto;
+import org.itmo.isLab1.programs.dto.ProgramFacetDto;
+import org.itmo.isLab1.programs.dto.ProgramFilterDto;
+import org.itmo.isLab1.programs.dto.ProgramFilterResultDto;
 import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
 import org.itmo.isLab1.programs.entity.Program;
 import org.itmo.isLab1.programs.mapper.ProgramMapper;
+import org.itmo.isLab1.programs.repository.ProgramFilterRepository.FacetRow;
 import org.itmo.isLab1.programs.repository.ProgramRepository;
-import org.itmo.isLab1.programs.repository.ProgramStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Service
 @RequiredArgsConstructor
 public class ProgramService {
     
     private final ProgramRepository residenceProgramRepository;
-    private final ProgramStatsRepository residenceProgramStatsRepository;
+    private final ViewRecorder viewRecorder;
+    private final ProgramCatalogCache programCatalogCache;
     private final ProgramMapper residenceProgramMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.programs.filter.facet-limit:20}")
+    private int facetLimit;
 
     /**
-     * Возвращает список программ
+     * Возвращает список опубликованных программ с открытым приемом заявок.
+     * Первые страницы берутся из кеша каталога, поэтому метод не открывает транзакцию сам:
+     * при попадании в кеш обращения к БД нет.
      *
      * @param pageable    параметры пагинации
-     * @return страница с программами резиденции
-     * @throws ResourceNotFoundException если резиденция не найдена
-     * @throws PolicyViolationError       если пользователь не является владельцем резиденции
+     * @return страница с программами
      */
-    @Transactional(readOnly = true)
     public Page<ProgramPreviewDto> getPrograms(Pageable pageable) {
-        return residenceProgramRepository.findByIsPublishedTrueAndDeadlineApplyGreaterThanEqual(LocalDate.now(), pageable)
-            .map(residenceProgramMapper::toPreviewDto);
+        return programCatalogCache.get(pageable, () ->
+            residenceProgramRepository.findPublishedPreviews(LocalDate.now(), pageable)
+        );
+    }
+
+    /**
+     * Полнотекстовый поиск среди опубликованных программ с открытым приемом заявок.
+     * Сортировка из параметров пагинации не учитывается, выдача упорядочена по релевантности.
+     *
+     * @param query    поисковый запрос, поддерживаются кавычки, OR и минус
+     * @param pageable параметры пагинации
+     * @return страница найденных программ с фрагментами текста
+     * @throws IllegalArgumentException если запрос пуст или слишком длинный
+     */
+    @Transactional(readOnly = true)
+    public Page<SearchHitDto<ProgramPreviewDto>> searchPrograms(String query, Pageable pageable) {
+        String normalized = SearchQuery.normalize(query);
+        LocalDate today = LocalDate.now();
+
+        List<SearchHit> hits = residenceProgramRepository.search(
+            normalized, today, pageable.getPageSize(), pageable.getOffset()
+        );
+        Map<Long, ProgramPreviewDto> programs = residenceProgramRepository.findPreviewsByIdIn(hits.stream().map(SearchHit::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(ProgramPreviewDto::getId, Function.identity()));
+
+        List<SearchHitDto<ProgramPreviewDto>> content = hits.stream()
+            .filter(hit -> programs.containsKey(hit.getId()))
+            .map(hit -> new SearchHitDto<>(
+                programs.get(hit.getId()),
+                hit.getSnippet(),
+                hit.getRank()
+            ))
+            .toList();
+        return PageableExecutionUtils.getPage(
+            content,
+            PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()),
+            () -> residenceProgramRepository.countSearch(normalized, today)
+        );
+    }
+
+    /**
+     * Фильтрация опубликованных программ с открытым приемом заявок по целям, условиям,
+     * длительности, квотам и окну дедлайна. Вместе со страницей возвращаются фасеты:
+     * количество подходящих программ по значениям ключей целей и условий.
+     *
+     * @param filter   фильтр, незаданные поля не ограничивают выборку
+     * @param pageable параметры пагинации, сортировка по createdAt, deadlineApply, title или id
+     * @return страница программ и фасеты
+     * @throws IllegalArgumentException если цели или условия не JSON объект, диапазон задан неверно
+     *                                  или сортировка не поддерживается
+     */
+    @Transactional(readOnly = true)
+    public ProgramFilterResultDto filterPrograms(ProgramFilterDto filter, Pageable pageable) {
+        ProgramFilterDto normalized = normalizeFilter(filter);
+        LocalDate today = LocalDate.now();
+
+        List<Long> ids = residenceProgramRepository.findFilteredIds(normalized, today, pageable);
+        Map<Long, ProgramPreviewDto> programs = residenceProgramRepository.findPreviewsByIdIn(ids)
+            .stream()
+            .collect(Collectors.toMap(ProgramPreviewDto::getId, Function.identity()));
+        List<ProgramPreviewDto> content = ids.stream()
+            .filter(programs::containsKey)
+            .map(programs::get)
+            .toList();
+        Page<ProgramPreviewDto> page = PageableExecutionUtils.getPage(
+            content,
+            pageable,
+            () -> residenceProgramRepository.countFiltered(normalized, today)
+        );
+
+        List<ProgramFacetDto> goalFacets = new ArrayList<>();
+        List<ProgramFacetDto> conditionFacets = new ArrayList<>();
+        for (FacetRow row : residenceProgramRepository.findFacets(normalized, today, facetLimit)) {
+            ProgramFacetDto facet = new ProgramFacetDto(row.key(), readFacetValue(row.value()), row.count());
+            if ("goals".equals(row.field())) {
+                goalFacets.add(facet);
+            } else {
+                conditionFacets.add(facet);
+            }
+        }
+
+        return ProgramFilterResultDto.builder()
+            .programs(page)
+            .goalFacets(goalFacets)
+            .conditionFacets(conditionFacets)
+            .build();
+    }
+
+    /**
+     * ETag опубликованной программы по ее версии, без загрузки самой программы
+     *
+     * @param programId ID программы
+     * @return слабый ETag
+     * @throws ResourceNotFoundException если программа не найдена
+     * @throws PolicyViolationError       если программа не опубликована
+     */
+    @Transactional(readOnly = true)
+    public String getProgramETag(Long programId) {
+        ResourceVersion version = residenceProgramRepository.findVersionById(programId)
+                .orElseThrow(() -> new ResourceNotFoundException("Программа с id " + programId + " не найдена для резиденции"));
+
+        if (!version.isPublished()) {
+            throw new PolicyViolationError("Доступ к программе возможен только если она опубликована");
+        }
+        return version.etag();
+    }
+
+    /**
+     * Учет просмотра программы, ответ на который не потребовал загрузки программы
+     *
+     * @param programId ID программы
+     */
+    public void recordProgramView(Long programId) {
+        viewRecorder.recordProgramView(programId);
     }
 
     /**
@@ -48,7 +185,7 @@ public class ProgramService {
      * @throws ResourceNotFoundException если программа или резиденция не найдены
      * @throws PolicyViolationError       если пользователь не является владельцем резиденции
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public ProgramDto getProgramById(Long programId) {
 
         Program program = residenceProgramRepository.findById(programId)
@@ -58,7 +195,63 @@ public class ProgramService {
             throw new PolicyViolationError("Доступ к программе возможен только если она опубликована");
         }
 
-        residenceProgramStatsRepository.createProgramViewLog(programId);
+        viewRecorder.recordProgramView(programId);
         return residenceProgramMapper.toDto(program);
     }
+
+    /**
+     * Проверка фильтра: цели и условия приводятся к компактному JSON, границы диапазонов сверяются
+     */
+    private ProgramFilterDto normalizeFilter(ProgramFilterDto filter) {
+        checkRange(filter.getDurationMin(), filter.getDurationMax(), "длительности");
+        checkRange(filter.getBudgetMin(), filter.getBudgetMax(), "бюджетной квоты");
+        checkRange(filter.getPeopleMin(), filter.getPeopleMax(), "квоты участников");
+        if (filter.getDeadlineFrom() != null && filter.getDeadlineTo() != null
+                && filter.getDeadlineFrom().isAfter(filter.getDeadlineTo())) {
+            throw new IllegalArgumentException("Начало окна дедлайна позже его конца");
+        }
+
+        return ProgramFilterDto.builder()
+            .goals(normalizeJsonObject(filter.getGoals(), "goals"))
+            .conditions(normalizeJsonObject(filter.getConditions(), "conditions"))
+            .durationMin(filter.getDurationMin())
+            .durationMax(filter.getDurationMax())
+            .budgetMin(filter.getBudgetMin())
+            .budgetMax(filter.getBudgetMax())
+            .peopleMin(filter.getPeopleMin())
+            .peopleMax(filter.getPeopleMax())
+            .deadlineFrom(filter.getDeadlineFrom())
+            .deadlineTo(filter.getDeadlineTo())
+            .build();
+    }
+
+    private String normalizeJsonObject(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(value);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Параметр " + name + " должен быть JSON объектом");
+            }
+            // пустой объект содержится в любом значении и не ограничивает выборку
+            return node.isEmpty() ? null : objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Некорректный JSON в параметре " + name + ": " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static void checkRange(Integer min, Integer max, String name) {
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("Нижняя граница " + name + " больше верхней");
+        }
+    }
+
+    private Object readFacetValue(String json) {
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (JsonProcessingException e) {
+            return json;
+        }
+    }
 }
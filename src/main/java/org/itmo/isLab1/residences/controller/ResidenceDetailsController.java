@@ -2,20 +2,28 @@ package org.itmo.isLab1.residences.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.itmo.isLab1.common.search.SearchHitDto;
+import org.itmo.isLab1.common.utils.http.ETags;
 import org.itmo.isLab1.residences.dto.ResidenceDetailsCreateDto;
 import org.itmo.isLab1.residences.dto.ResidenceDetailsDto;
 import org.itmo.isLab1.residences.dto.ResidenceDetailsUpdateDto;
+import org.itmo.isLab1.residences.dto.ResidencePreviewDto;
 import org.itmo.isLab1.residences.dto.ValidationResponseDto;
 import org.itmo.isLab1.residences.service.ResidenceDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+
 /**
  * REST-контроллер для управления профилями резиденций
  */
@@ -25,6 +33,9 @@ import org.springframework.web.bind.annotation.*;
 public class ResidenceDetailsController {
 
     private final ResidenceDetailsService residenceDetailsService;
+
+    @Value("${app.http.detail-cache-max-age:0s}")
+    private Duration detailCacheMaxAge;
     
     /**
      * Создание профиля резиденции для текущего пользователя
@@ -78,15 +89,54 @@ public class ResidenceDetailsController {
     }
 
     /**
-     * Получение профиля резиденции по ID
+     * Полнотекстовый поиск по названию, месту и описанию опубликованных резиденций
      *
-     * @param id ID профиля резиденции
-     * @return профиль резиденции
+     * @param q        поисковый запрос, поддерживаются кавычки, OR и минус
+     * @param pageable параметры пагинации, выдача упорядочена по релевантности
+     * @return страница найденных резиденций с фрагментами текста
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<SearchHitDto<ResidenceDetailsDto>>> search(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(residenceDetailsService.search(q, pageable));
+    }
+
+    /**
+     * Полнотекстовый поиск опубликованных резиденций с выдачей карточек без описания и контактов
+     *
+     * @param q        поисковый запрос, поддерживаются кавычки, OR и минус
+     * @param pageable параметры пагинации, выдача упорядочена по релевантности
+     * @return страница найденных карточек резиденций с фрагментами текста
+     */
+    @GetMapping("/search/previews")
+    public ResponseEntity<Page<SearchHitDto<ResidencePreviewDto>>> searchPreviews(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(residenceDetailsService.searchPreviews(q, pageable));
+    }
+
+    /**
+     * Получение профиля резиденции по ID. Если версия у клиента актуальна, ответ 304 без загрузки профиля.
+     *
+     * @param id          ID профиля резиденции
+     * @param ifNoneMatch ETag версии, сохраненной у клиента
+     * @return профиль резиденции или 304
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ResidenceDetailsDto> getProfile(@PathVariable Long id) {
+    public ResponseEntity<ResidenceDetailsDto> getProfile(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // ETag берется до загрузки профиля, поэтому устаревшим может оказаться только ETag, а не данные
+        String etag = residenceDetailsService.getProfileETag(id);
+        CacheControl cacheControl = CacheControl.maxAge(detailCacheMaxAge).cachePublic().mustRevalidate();
+        if (ETags.matches(ifNoneMatch, etag)) {
+            residenceDetailsService.recordResidenceView(id);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
         ResidenceDetailsDto dto = residenceDetailsService.getProfile(id);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(dto);
     }
 
     /**
@@ -101,4 +151,17 @@ public class ResidenceDetailsController {
         Page<ResidenceDetailsDto> page = residenceDetailsService.getAllPublished(pageable);
         return ResponseEntity.ok(page);
     }
+
+    /**
+     * Получение карточек опубликованных резиденций с пагинацией, без описания и контактов
+     *
+     * @param pageable параметры пагинации
+     * @return страница с карточками резиденций
+     */
+    @GetMapping("/previews")
+    public ResponseEntity<Page<ResidencePreviewDto>> getPublishedPreviews(
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<ResidencePreviewDto> page = residenceDetailsService.getPublishedPreviews(pageable);
+        return ResponseEntity.ok(page);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package org.itmo.isLab1.residences.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.itmo.isLab1.common.views.DailyViewsDto;
 import org.itmo.isLab1.programs.dto.ProgramCreateDto;
 import org.itmo.isLab1.programs.dto.ProgramDto;
 import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
@@ -13,11 +14,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * REST-контроллер для управления программами резиденций
  */
@@ -123,4 +128,22 @@ public class ResidenceProgramController {
         ProgramStatsDto dto = residenceProgramService.getProgramStatsById(id);
         return ResponseEntity.ok(dto);
     }
+
+    /**
+     * Возвращает просмотры программы текущего пользователя по дням
+     *
+     * @param id   идентификатор программы
+     * @param from первый день периода (ISO дата, по умолчанию 30 дней назад)
+     * @param to   последний день периода (ISO дата, по умолчанию сегодня)
+     * @return просмотры по дням
+     */
+    @GetMapping("/{id}/stats/daily")
+    @PreAuthorize("hasRole('RESIDENCE_ADMIN')")
+    public ResponseEntity<List<DailyViewsDto>> getProgramDailyViews(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailyViewsDto> series = residenceProgramService.getProgramDailyViews(id, from, to);
+        return ResponseEntity.ok(series);
+    }
 }
@@ -1,12 +1,17 @@
 package org.itmo.isLab1.residences.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.itmo.isLab1.common.views.DailyViewsDto;
 import org.itmo.isLab1.residences.dto.ResidenceStatsDto;
 import org.itmo.isLab1.residences.service.ResidenceStatsService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * REST-контроллер для управления профилями резиденций
  */
@@ -28,4 +33,20 @@ public class ResidenceStatsController {
         ResidenceStatsDto dto = residenceStatsService.getStatsForCurrentUser();
         return ResponseEntity.ok(dto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Получение просмотров резиденции текущего пользователя по дням
+     *
+     * @param from первый день периода (ISO дата, по умолчанию 30 дней назад)
+     * @param to   последний день периода (ISO дата, по умолчанию сегодня)
+     * @return просмотры по дням
+     */
+    @GetMapping("/daily")
+    @PreAuthorize("hasRole('RESIDENCE_ADMIN')")
+    public ResponseEntity<List<DailyViewsDto>> getDailyViewsForCurrentUser(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailyViewsDto> series = residenceStatsService.getDailyViewsForCurrentUser(from, to);
+        return ResponseEntity.ok(series);
+    }
+}
@@ -11,4 +11,5 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ResidenceStatsDto {
     private Long viewsCount;
+    private Long uniqueVisitors;
 }
@@ -29,6 +29,11 @@ public class ResidenceStats implements BaseEntity {
     @Builder.Default
     private Integer viewsCount = 0;
 
+    /** Скетч уникальных посетителей за все время, см. HyperLogLog */
+    @ToString.Exclude
+    @Column(name = "visitors_sketch")
+    private byte[] visitorsSketch;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     @Convert(converter = ZonedDateTimeConverter.class)
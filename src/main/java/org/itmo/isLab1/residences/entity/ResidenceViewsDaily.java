@@ -0,0 +1,42 @@
+package org.itmo.isLab1.residences.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Дневной агрегат просмотров резиденции, заполняется функцией rollup_residence_views
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ResidenceViewsDaily.Key.class)
+@Table(name = "art2art_residence_views_daily")
+public class ResidenceViewsDaily {
+    @Id
+    @Column(name = "residence_id", nullable = false)
+    private Long residenceId;
+
+    @Id
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "views_count", nullable = false)
+    private Long viewsCount;
+
+    /** Скетч уникальных посетителей за день, см. HyperLogLog */
+    @ToString.Exclude
+    @Column(name = "visitors_sketch")
+    private byte[] visitorsSketch;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long residenceId;
+        private LocalDate bucketDate;
+    }
+}
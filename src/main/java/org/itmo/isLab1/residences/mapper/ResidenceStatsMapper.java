@@ -2,6 +2,7 @@ package org.itmo.isLab1.residences.mapper;
 
 import org.itmo.isLab1.common.mapper.JsonNullableMapper;
 import org.itmo.isLab1.common.mapper.ReferenceMapper;
+import org.itmo.isLab1.common.views.HyperLogLog;
 import org.itmo.isLab1.residences.dto.ResidenceStatsDto;
 import org.itmo.isLab1.residences.entity.ResidenceStats;
 import org.mapstruct.Mapper;
@@ -14,11 +15,13 @@ import org.mapstruct.ReportingPolicy;
     uses = { JsonNullableMapper.class, ReferenceMapper.class },
     nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
     componentModel = MappingConstants.ComponentModel.SPRING,
-    unmappedTargetPolicy = ReportingPolicy.IGNORE
+    unmappedTargetPolicy = ReportingPolicy.IGNORE,
+    imports = HyperLogLog.class
 )
 public interface ResidenceStatsMapper {
 
     @Mapping(source = "viewsCount", target = "viewsCount")
+    @Mapping(target = "uniqueVisitors", expression = "java(HyperLogLog.estimate(stats.getVisitorsSketch()))")
     ResidenceStatsDto toDto(ResidenceStats stats);
 
 }
@@ -1,5 +1,8 @@
 package org.itmo.isLab1.residences.repository;
 
+import org.itmo.isLab1.common.search.SearchHit;
+import org.itmo.isLab1.common.utils.http.ResourceVersion;
+import org.itmo.isLab1.residences.dto.ResidencePreviewDto;
 import org.itmo.isLab1.residences.entity.ResidenceDetails;
 import org.itmo.isLab1.residences.entity.ValidationStatus;
 import org.springframework.data.domain.Page;
@@ -9,6 +12,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -34,22 +39,128 @@ public interface ResidenceDetailsRepository extends JpaRepository<ResidenceDetai
         @Param("userId") Long userId
     );
 
+    /**
+     * Пакетная запись просмотров резиденций
+     *
+     * @param residenceIds id резиденций в формате массива PostgreSQL, например {1,2,3}
+     * @param counts       количество просмотров для каждой резиденции в том же порядке
+     */
     @Query(
         value = """
-            select log_residence_view(
-                :residenceId
+            select log_residence_views(
+                cast(:residenceIds as bigint[]),
+                cast(:counts as int[])
             )
             """,
         nativeQuery = true
     )
-    void createResidenceViewLog(
-        @Param("residenceId") Long residenceId
+    void createResidenceViewLogs(
+        @Param("residenceIds") String residenceIds,
+        @Param("counts") String counts
     );
 
+    /**
+     * Полнотекстовый поиск среди опубликованных резиденций по названию, месту и описанию.
+     * Фрагменты текста строятся только для строк страницы.
+     *
+     * @param query  запрос в синтаксисе websearch_to_tsquery
+     * @param limit  размер страницы
+     * @param offset смещение страницы
+     * @return найденные резиденции по убыванию релевантности
+     */
+    @Query(
+        value = """
+            with q as (
+                select websearch_to_tsquery('russian', :query) as tsq
+            ),
+            hit as (
+                select r.id, ts_rank_cd(r.search_vector, q.tsq, 1)::float8 as rank
+                from art2art_residence_details r, q
+                where r.search_vector @@ q.tsq
+                  and r.is_published
+                order by rank desc, r.id desc
+                limit :limit offset :offset
+            )
+            select hit.id,
+                   ts_headline('russian', concat_ws(' ', r.location, r.description), q.tsq,
+                               'MaxFragments=2, MinWords=5, MaxWords=20') as snippet,
+                   hit.rank
+            from hit
+            join art2art_residence_details r on r.id = hit.id
+            cross join q
+            order by hit.rank desc, hit.id desc
+            """,
+        nativeQuery = true
+    )
+    List<SearchHit> search(
+        @Param("query") String query,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    /**
+     * Количество резиденций, найденных {@link #search}
+     */
+    @Query(
+        value = """
+            select count(*)
+            from art2art_residence_details r
+            where r.search_vector @@ websearch_to_tsquery('russian', :query)
+              and r.is_published
+            """,
+        nativeQuery = true
+    )
+    long countSearch(@Param("query") String query);
+
     Page<ResidenceDetails> findByValidationStatus(ValidationStatus status, Pageable pageable);
 
     Page<ResidenceDetails> findByIsPublishedTrue(Pageable pageable);
 
+    /**
+     * Карточки опубликованных резиденций без описания, контактов и данных валидации
+     *
+     * @param pageable параметры пагинации
+     * @return страница карточек резиденций
+     */
+    @Query(
+        value = """
+            select new org.itmo.isLab1.residences.dto.ResidencePreviewDto(
+                r.id, r.user.id, r.title, r.location, r.createdAt, r.updatedAt
+            )
+            from ResidenceDetails r
+            where r.isPublished = true
+            """,
+        countQuery = "select count(r) from ResidenceDetails r where r.isPublished = true"
+    )
+    Page<ResidencePreviewDto> findPublishedPreviews(Pageable pageable);
+
+    /**
+     * Карточки резиденций по ID, порядок не гарантируется
+     *
+     * @param ids ID резиденций
+     * @return карточки найденных резиденций
+     */
+    @Query("""
+        select new org.itmo.isLab1.residences.dto.ResidencePreviewDto(
+            r.id, r.user.id, r.title, r.location, r.createdAt, r.updatedAt
+        )
+        from ResidenceDetails r
+        where r.id in :ids
+        """)
+    List<ResidencePreviewDto> findPreviewsByIdIn(@Param("ids") Collection<Long> ids);
+
     Optional<ResidenceDetails> findByUserId(Long userId);
 
+    @Query("select r.id from ResidenceDetails r where r.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    /**
+     * Версия профиля резиденции для условных запросов, без описания и контактов
+     *
+     * @param id ID профиля резиденции
+     * @return версия, пусто если профиль не найден
+     */
+    @Query("select new org.itmo.isLab1.common.utils.http.ResourceVersion(r.id, r.isPublished, r.updatedAt) from ResidenceDetails r where r.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
 }
\ No newline at end of file
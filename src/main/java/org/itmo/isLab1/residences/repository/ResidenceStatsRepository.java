@@ -2,6 +2,8 @@ package org.itmo.isLab1.residences.repository;
 
 import org.itmo.isLab1.residences.entity.ResidenceStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +12,42 @@ import java.util.Optional;
 public interface ResidenceStatsRepository extends JpaRepository<ResidenceStats, Long> {
 
     Optional<ResidenceStats> findByResidenceId(Long residenceId);
+
+    /**
+     * Перенос сырого лога просмотров резиденций в часовые и дневные агрегаты
+     *
+     * @param hourlyRetentionDays сколько дней хранить часовые агрегаты
+     * @return количество перенесенных просмотров
+     */
+    @Query(
+        value = """
+            select rollup_residence_views(
+                :hourlyRetentionDays
+            )
+            """,
+        nativeQuery = true
+    )
+    Long rollupResidenceViews(
+        @Param("hourlyRetentionDays") int hourlyRetentionDays
+    );
+
+    /**
+     * Объединение скетча уникальных посетителей резиденции с дневным и общим скетчами
+     *
+     * @param residenceId ID резиденции
+     * @param sketch      сериализованный скетч HyperLogLog
+     */
+    @Query(
+        value = """
+            select merge_residence_visitors(
+                :residenceId,
+                :sketch
+            )
+            """,
+        nativeQuery = true
+    )
+    void mergeResidenceVisitors(
+        @Param("residenceId") Long residenceId,
+        @Param("sketch") byte[] sketch
+    );
 }
@@ -0,0 +1,14 @@
+package org.itmo.isLab1.residences.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.itmo.isLab1.residences.entity.ResidenceViewsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResidenceViewsDailyRepository extends JpaRepository<ResidenceViewsDaily, ResidenceViewsDaily.Key> {
+
+    List<ResidenceViewsDaily> findByResidenceIdAndBucketDateBetweenOrderByBucketDate(Long residenceId, LocalDate from, LocalDate to);
+}
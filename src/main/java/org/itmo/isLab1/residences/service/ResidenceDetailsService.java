@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.itmo.isLab1.residences.dto.ResidenceDetailsCreateDto;
 import org.itmo.isLab1.residences.dto.ResidenceDetailsDto;
 import org.itmo.isLab1.residences.dto.ResidenceDetailsUpdateDto;
+import org.itmo.isLab1.residences.dto.ResidencePreviewDto;
 import org.itmo.isLab1.residences.dto.ValidationResponseDto;
 import org.itmo.isLab1.residences.entity.ResidenceDetails;
 import org.itmo.isLab1.residences.entity.ValidationStatus;
@@ -12,14 +13,26 @@ import org.itmo.isLab1.residences.mapper.ResidenceDetailsMapper;
 import org.itmo.isLab1.residences.repository.ResidenceDetailsRepository;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
 import org.itmo.isLab1.common.errors.PolicyViolationError;
-import org.itmo.isLab1.users.User;
+import org.itmo.isLab1.common.search.SearchHit;
+import org.itmo.isLab1.common.search.SearchHitDto;
+import org.itmo.isLab1.common.search.SearchQuery;
+import org.itmo.isLab1.common.utils.http.ResourceVersion;
+import org.itmo.isLab1.common.views.ViewRecorder;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.itmo.isLab1.users.UserService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class ResidenceDetailsService {
@@ -28,6 +41,8 @@ public class ResidenceDetailsService {
     private final ResidenceDetailsMapper mapper;
     private final ObjectMapper objectMapper;
     private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
+    private final ViewRecorder viewRecorder;
 
     /**
      * Создание профиля резиденции
@@ -37,7 +52,7 @@ public class ResidenceDetailsService {
      */
     @Transactional
     public ResidenceDetailsDto create(ResidenceDetailsCreateDto dto) {
-        Long userId = userService.getCurrentUser().getId();
+        Long userId = userService.getCurrentUserId();
 
         String contactsJson;
         try {
@@ -57,6 +72,7 @@ public class ResidenceDetailsService {
         
         ResidenceDetails details = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции не найден после создания"));
+        currentUserResolver.evict(userId);
         return mapper.toResidenceDetailsWithValidation(details);
     }
 
@@ -80,6 +96,7 @@ public class ResidenceDetailsService {
         }
 
         details = repository.save(details);
+        currentUserResolver.evict(details.getUser().getId());
         return mapper.toResidenceDetailsWithValidation(details);
     }
 
@@ -89,18 +106,46 @@ public class ResidenceDetailsService {
      * @return профиль резиденции
      */
     public ResidenceDetailsDto getMyProfile() {
-        User user = userService.getCurrentUser();
-        ResidenceDetails details = repository.findByUserId(user.getId())
+        ResidenceDetails details = repository.findByUserId(userService.getCurrentUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции не найден"));
         return mapper.toResidenceDetailsWithValidation(details);
     }
 
+    /**
+     * ETag опубликованного профиля резиденции по его версии, без загрузки самого профиля
+     *
+     * @param residenceId ID профиля резиденции
+     * @return слабый ETag
+     * @throws ResourceNotFoundException если профиль не найден
+     * @throws PolicyViolationError       если резиденция не опубликована
+     */
+    @Transactional(readOnly = true)
+    public String getProfileETag(Long residenceId) {
+        ResourceVersion version = repository.findVersionById(residenceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции с id " + residenceId + " не найден"));
+
+        if (!version.isPublished()) {
+            throw new PolicyViolationError("Доступ к резиденции возможен только если она опубликована");
+        }
+        return version.etag();
+    }
+
+    /**
+     * Учет просмотра резиденции, ответ на который не потребовал загрузки профиля
+     *
+     * @param residenceId ID профиля резиденции
+     */
+    public void recordResidenceView(Long residenceId) {
+        viewRecorder.recordResidenceView(residenceId);
+    }
+
     /**
      * Получение профиля резиденции по ID
      *
      * @param id ID профиля резиденции
      * @return профиль резиденции
      */
+    @Transactional(readOnly = true)
     public ResidenceDetailsDto getProfile(Long residenceId) {
         ResidenceDetails details = repository.findById(residenceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции с id " + residenceId + " не найден"));
@@ -108,7 +153,7 @@ public class ResidenceDetailsService {
         if (!details.getIsPublished()) {
             throw new PolicyViolationError("Доступ к резиденции возможен только если она опубликована");
         }
-        repository.createResidenceViewLog(residenceId);
+        viewRecorder.recordResidenceView(residenceId);
         return mapper.toResidenceDetails(details);
     }
 
@@ -123,14 +168,81 @@ public class ResidenceDetailsService {
                 .map(mapper::toResidenceDetails);
     }
 
+    /**
+     * Получение карточек опубликованных резиденций с пагинацией.
+     * Описание, контакты и данные валидации не загружаются.
+     *
+     * @param pageable параметры пагинации
+     * @return страница с карточками резиденций
+     */
+    public Page<ResidencePreviewDto> getPublishedPreviews(Pageable pageable) {
+        return repository.findPublishedPreviews(pageable);
+    }
+
+    /**
+     * Полнотекстовый поиск среди опубликованных резиденций.
+     * Сортировка из параметров пагинации не учитывается, выдача упорядочена по релевантности.
+     *
+     * @param query    поисковый запрос, поддерживаются кавычки, OR и минус
+     * @param pageable параметры пагинации
+     * @return страница найденных резиденций с фрагментами текста
+     * @throws IllegalArgumentException если запрос пуст или слишком длинный
+     */
+    @Transactional(readOnly = true)
+    public Page<SearchHitDto<ResidenceDetailsDto>> search(String query, Pageable pageable) {
+        return search(query, pageable, ids -> repository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(ResidenceDetails::getId, mapper::toResidenceDetails)));
+    }
+
+    /**
+     * Полнотекстовый поиск среди опубликованных резиденций с выдачей карточек
+     *
+     * @param query    поисковый запрос, поддерживаются кавычки, OR и минус
+     * @param pageable параметры пагинации
+     * @return страница найденных карточек резиденций с фрагментами текста
+     * @throws IllegalArgumentException если запрос пуст или слишком длинный
+     */
+    @Transactional(readOnly = true)
+    public Page<SearchHitDto<ResidencePreviewDto>> searchPreviews(String query, Pageable pageable) {
+        return search(query, pageable, ids -> repository.findPreviewsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(ResidencePreviewDto::getId, Function.identity())));
+    }
+
+    /**
+     * Поиск с загрузкой найденных резиденций в нужном представлении
+     *
+     * @param loader загружает представления резиденций по ID найденных записей
+     */
+    private <T> Page<SearchHitDto<T>> search(String query, Pageable pageable, Function<List<Long>, Map<Long, T>> loader) {
+        String normalized = SearchQuery.normalize(query);
+
+        List<SearchHit> hits = repository.search(normalized, pageable.getPageSize(), pageable.getOffset());
+        Map<Long, T> residences = loader.apply(hits.stream().map(SearchHit::getId).toList());
+
+        List<SearchHitDto<T>> content = hits.stream()
+                .filter(hit -> residences.containsKey(hit.getId()))
+                .map(hit -> new SearchHitDto<>(
+                        residences.get(hit.getId()),
+                        hit.getSnippet(),
+                        hit.getRank()
+                ))
+                .toList();
+        return PageableExecutionUtils.getPage(
+                content,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()),
+                () -> repository.countSearch(normalized)
+        );
+    }
+
     /**
      * Получение статуса валидации профиля резиденции текущего пользователя
      *
      * @return статус валидации с комментарием и датой отправки
      */
     public ValidationResponseDto getMyValidationStatus() {
-        User user = userService.getCurrentUser();
-        ResidenceDetails details = repository.findByUserId(user.getId())
+        ResidenceDetails details = repository.findByUserId(userService.getCurrentUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции не найден"));
         
         return ValidationResponseDto.builder()
@@ -3,6 +3,10 @@ package org.itmo.isLab1.residences.service;
 import lombok.RequiredArgsConstructor;
 import org.itmo.isLab1.common.errors.PolicyViolationError;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.utils.json.RawJson;
+import org.itmo.isLab1.common.views.DailyViewsDto;
+import org.itmo.isLab1.common.views.HyperLogLog;
+import org.itmo.isLab1.common.views.ViewsRange;
 import org.itmo.isLab1.programs.dto.ProgramCreateDto;
 import org.itmo.isLab1.programs.dto.ProgramDto;
 import org.itmo.isLab1.programs.dto.ProgramPreviewDto;
@@ -10,31 +14,34 @@ import org.itmo.isLab1.programs.dto.ProgramStatsDto;
 import org.itmo.isLab1.programs.dto.ProgramUpdateDto;
 import org.itmo.isLab1.programs.entity.Program;
 import org.itmo.isLab1.programs.entity.ProgramStats;
+import org.itmo.isLab1.programs.entity.ProgramViewsDaily;
 import org.itmo.isLab1.programs.mapper.ProgramMapper;
 import org.itmo.isLab1.programs.repository.ProgramRepository;
 import org.itmo.isLab1.programs.repository.ProgramStatsRepository;
-import org.itmo.isLab1.residences.entity.ResidenceDetails;
-import org.itmo.isLab1.residences.repository.ResidenceDetailsRepository;
-import org.itmo.isLab1.users.User;
+import org.itmo.isLab1.programs.repository.ProgramViewsDailyRepository;
+import org.itmo.isLab1.programs.service.ProgramCatalogCache;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.itmo.isLab1.users.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ResidenceProgramService {
 
-    private final ObjectMapper objectMapper;
     private final ProgramRepository residenceProgramRepository;
     private final ProgramMapper residenceProgramMapper;
     private final UserService userService;
-    private final ResidenceDetailsRepository residenceDetailsRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final ProgramStatsRepository residenceProgramStatsRepository;
+    private final ProgramViewsDailyRepository programViewsDailyRepository;
+    private final ProgramCatalogCache programCatalogCache;
 
     /**
      * Возвращает пагинированный список программ для резиденции текущего пользователя
@@ -47,12 +54,9 @@ public class ResidenceProgramService {
     @Transactional(readOnly = true)
     public Page<ProgramPreviewDto> getProgramsByResidenceId(Pageable pageable) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
-        return residenceProgramRepository.findByResidenceId(residence.getId(), pageable)
-            .map(residenceProgramMapper::toPreviewDto);
+        return residenceProgramRepository.findPreviewsByResidenceId(residenceId, pageable);
     }
 
     /**
@@ -67,12 +71,10 @@ public class ResidenceProgramService {
     @Transactional(readOnly = true)
     public ProgramDto getProgramById(Long programId) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
         // Проверяем принадлежность программы к резиденции
-        Program program = residenceProgramRepository.findByResidenceIdAndId(residence.getId(), programId)
+        Program program = residenceProgramRepository.findByResidenceIdAndId(residenceId, programId)
                 .orElseThrow(() -> new ResourceNotFoundException("Программа с id " + programId + " не найдена для резиденции"));
 
         return residenceProgramMapper.toDto(program);
@@ -82,17 +84,16 @@ public class ResidenceProgramService {
     @Transactional
     public ProgramDto publishProgram(Long programId) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
 
-        Program program = residenceProgramRepository.findByResidenceIdAndId(residence.getId(), programId)
+        Program program = residenceProgramRepository.findByResidenceIdAndId(residenceId, programId)
                 .orElseThrow(() -> new ResourceNotFoundException("У вам нет программы с id " + programId));
 
         program.setIsPublished(true);
 
         residenceProgramRepository.save(program);
+        programCatalogCache.invalidate();
 
         return residenceProgramMapper.toDto(program);
     }
@@ -100,17 +101,16 @@ public class ResidenceProgramService {
     @Transactional
     public ProgramDto unpublishProgram(Long programId) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
 
-        Program program = residenceProgramRepository.findByResidenceIdAndId(residence.getId(), programId)
+        Program program = residenceProgramRepository.findByResidenceIdAndId(residenceId, programId)
                 .orElseThrow(() -> new ResourceNotFoundException("У вам нет программы с id " + programId));
 
         program.setIsPublished(false);
 
         residenceProgramRepository.save(program);
+        programCatalogCache.invalidate();
 
         return residenceProgramMapper.toDto(program);
     }
@@ -127,17 +127,16 @@ public class ResidenceProgramService {
     @Transactional
     public ProgramDto updateProgram(Long programId, ProgramUpdateDto updateDto) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
 
-        Program program = residenceProgramRepository.findByResidenceIdAndId(residence.getId(), programId)
+        Program program = residenceProgramRepository.findByResidenceIdAndId(residenceId, programId)
                 .orElseThrow(() -> new ResourceNotFoundException("У вам нет программы с id " + programId));
 
         residenceProgramMapper.updateEntity(updateDto, program);
 
         residenceProgramRepository.save(program);
+        programCatalogCache.invalidate();
 
         return residenceProgramMapper.toDto(program);
     }
@@ -154,31 +153,22 @@ public class ResidenceProgramService {
     @Transactional
     public ProgramDto createProgram(ProgramCreateDto createDto) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
-        String goals, conditions;
-        try {
-            goals = objectMapper.writeValueAsString(createDto.getGoals());
-            conditions = objectMapper.writeValueAsString(createDto.getConditions());
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Невозможно сериализовать цели или условия в JSON: " + e.getMessage(), e);
-        }
-        
+        // цели и условия уже проверены при разборе запроса и передаются в БД готовым текстом
         Long programId = residenceProgramRepository.createProgram(
-                residence.getId(),
+                residenceId,
                 createDto.getTitle(),
                 createDto.getDescription(),
-                goals,
-                conditions,
+                RawJson.valueOf(createDto.getGoals()),
+                RawJson.valueOf(createDto.getConditions()),
                 createDto.getDeadlineApply(),
                 createDto.getDeadlineReview(),
                 createDto.getDeadlineNotify(),
                 createDto.getDurationDays(),
                 createDto.getBudgetQuota(),
                 createDto.getPeopleQuota(),
-                currentUser.getId()
+                userService.getCurrentUserId()
         );
 
 
@@ -201,11 +191,9 @@ public class ResidenceProgramService {
     @Transactional
     public ProgramStatsDto getProgramStatsById(Long programId) {
 
-        User currentUser = userService.getCurrentUser();
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+        Long residenceId = getCurrentResidenceId();
 
-        residenceProgramRepository.findByResidenceIdAndId(residence.getId(), programId)
+        residenceProgramRepository.findByResidenceIdAndId(residenceId, programId)
                 .orElseThrow(() -> new ResourceNotFoundException("У вам нет программы с id " + programId));
 
         ProgramStats programStats = residenceProgramStatsRepository.findByProgramId(programId)
@@ -213,4 +201,45 @@ public class ResidenceProgramService {
         return residenceProgramMapper.toStatDto(programStats);
     }
 
+    /**
+     * Возвращает просмотры программы по дням за период
+     *
+     * @param programId идентификатор программы
+     * @param from      первый день периода (по умолчанию 30 дней назад)
+     * @param to        последний день периода (по умолчанию сегодня)
+     * @return просмотры по дням, включая дни без просмотров
+     * @throws ResourceNotFoundException если программа или резиденция не найдены
+     * @throws IllegalArgumentException  если период задан некорректно
+     */
+    @Transactional(readOnly = true)
+    public List<DailyViewsDto> getProgramDailyViews(Long programId, LocalDate from, LocalDate to) {
+
+        Long residenceId = getCurrentResidenceId();
+
+        residenceProgramRepository.findByResidenceIdAndId(residenceId, programId)
+                .orElseThrow(() -> new ResourceNotFoundException("У вам нет программы с id " + programId));
+
+        ViewsRange range = ViewsRange.of(from, to);
+        return range.toSeries(
+            programViewsDailyRepository.findByProgramIdAndBucketDateBetweenOrderByBucketDate(programId, range.from(), range.to())
+                .stream()
+                .collect(Collectors.toMap(ProgramViewsDaily::getBucketDate, daily -> new DailyViewsDto(
+                    daily.getBucketDate(),
+                    daily.getViewsCount(),
+                    HyperLogLog.estimate(daily.getVisitorsSketch())
+                )))
+        );
+    }
+
+    /**
+     * Вспомогательный метод для получения ID резиденции текущего пользователя
+     *
+     * @return ID резиденции
+     * @throws ResourceNotFoundException если у пользователя нет резиденции
+     */
+    private Long getCurrentResidenceId() {
+        return currentUserResolver.getCurrentResidenceId()
+                .orElseThrow(() -> new ResourceNotFoundException("У вас нет резиденции"));
+    }
+
 }
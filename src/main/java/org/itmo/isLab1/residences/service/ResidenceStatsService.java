@@ -3,24 +3,31 @@ package org.itmo.isLab1.residences.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.itmo.isLab1.common.errors.ResourceNotFoundException;
+import org.itmo.isLab1.common.views.DailyViewsDto;
+import org.itmo.isLab1.common.views.HyperLogLog;
+import org.itmo.isLab1.common.views.ViewsRange;
 import org.itmo.isLab1.residences.dto.ResidenceStatsDto;
-import org.itmo.isLab1.residences.entity.ResidenceDetails;
 import org.itmo.isLab1.residences.entity.ResidenceStats;
-import org.itmo.isLab1.residences.repository.ResidenceDetailsRepository;
+import org.itmo.isLab1.residences.entity.ResidenceViewsDaily;
 import org.itmo.isLab1.residences.repository.ResidenceStatsRepository;
+import org.itmo.isLab1.residences.repository.ResidenceViewsDailyRepository;
 import org.itmo.isLab1.residences.mapper.ResidenceStatsMapper;
-import org.itmo.isLab1.users.UserService;
+import org.itmo.isLab1.users.CurrentUserResolver;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ResidenceStatsService {
 
     private final ResidenceStatsRepository residenceStatsRepository;
-    private final ResidenceDetailsRepository residenceDetailsRepository;
-    private final UserService userService;
+    private final ResidenceViewsDailyRepository residenceViewsDailyRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final ResidenceStatsMapper residenceStatsMapper;
 
     /**
@@ -31,15 +38,39 @@ public class ResidenceStatsService {
      */
     @Transactional(readOnly = true)
     public ResidenceStatsDto getStatsForCurrentUser() {
-        Long userId = userService.getCurrentUser().getId();
-        
-        ResidenceDetails residence = residenceDetailsRepository.findByUserId(userId)
+        Long residenceId = currentUserResolver.getCurrentResidenceId()
                 .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции для текущего пользователя не найден"));
         
-        ResidenceStats stats = residenceStatsRepository.findByResidenceId(residence.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Статистика для резиденции с id " + residence.getId() + " не найдена"));
+        ResidenceStats stats = residenceStatsRepository.findByResidenceId(residenceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Статистика для резиденции с id " + residenceId + " не найдена"));
         
         return residenceStatsMapper.toDto(stats);
     }
 
+    /**
+     * Получение просмотров резиденции текущего пользователя по дням за период
+     *
+     * @param from первый день периода (по умолчанию 30 дней назад)
+     * @param to   последний день периода (по умолчанию сегодня)
+     * @return просмотры по дням, включая дни без просмотров
+     * @throws ResourceNotFoundException если резиденция не найдена
+     * @throws IllegalArgumentException  если период задан некорректно
+     */
+    @Transactional(readOnly = true)
+    public List<DailyViewsDto> getDailyViewsForCurrentUser(LocalDate from, LocalDate to) {
+        Long residenceId = currentUserResolver.getCurrentResidenceId()
+                .orElseThrow(() -> new ResourceNotFoundException("Профиль резиденции для текущего пользователя не найден"));
+
+        ViewsRange range = ViewsRange.of(from, to);
+        return range.toSeries(
+            residenceViewsDailyRepository.findByResidenceIdAndBucketDateBetweenOrderByBucketDate(residenceId, range.from(), range.to())
+                .stream()
+                .collect(Collectors.toMap(ResidenceViewsDaily::getBucketDate, daily -> new DailyViewsDto(
+                    daily.getBucketDate(),
+                    daily.getViewsCount(),
+                    HyperLogLog.estimate(daily.getVisitorsSketch())
+                )))
+        );
+    }
+
 }
@@ -84,7 +84,7 @@ public class ReviewService {
      */
     @Transactional
     public ReviewDto updateReview(Long reviewId, ReviewUpdateDto updateDto) {
-        Long artistId = userService.getCurrentUser().getId();
+        Long artistId = userService.getCurrentUserId();
         
         // Проверка существования отзыва
         Review review = reviewRepository.findByProgramIdAndArtistId(reviewId, artistId)
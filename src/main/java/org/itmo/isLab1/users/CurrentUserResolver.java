@@ -0,0 +1,172 @@
+package org.itmo.isLab1.users;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.itmo.isLab1.artists.repository.ArtistProfileRepository;
+import org.itmo.isLab1.residences.repository.ResidenceDetailsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Определение текущего пользователя и связанных с ним профилей.
+ * Id пользователя берется из principal, собранного по JWT токену, без обращения к БД.
+ * Пользователь и id профилей запоминаются на время запроса и, опционально,
+ * в кратковременном кеше по id пользователя.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private static final String USER_ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+    private static final String ARTIST_ID_ATTRIBUTE = CurrentUserResolver.class.getName() + ".artistId";
+    private static final String RESIDENCE_ID_ATTRIBUTE = CurrentUserResolver.class.getName() + ".residenceId";
+
+    private final UserRepository userRepository;
+    private final ArtistProfileRepository artistProfileRepository;
+    private final ResidenceDetailsRepository residenceDetailsRepository;
+
+    private final Cache<Long, User> users;
+    private final Cache<Long, Optional<Long>> artistIds;
+    private final Cache<Long, Optional<Long>> residenceIds;
+
+    public CurrentUserResolver(
+        UserRepository userRepository,
+        ArtistProfileRepository artistProfileRepository,
+        ResidenceDetailsRepository residenceDetailsRepository,
+        @Value("${app.identity.cache.enabled:true}") boolean cacheEnabled,
+        @Value("${app.identity.cache.ttl:30s}") Duration ttl,
+        @Value("${app.identity.cache.max-size:10000}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.artistProfileRepository = artistProfileRepository;
+        this.residenceDetailsRepository = residenceDetailsRepository;
+
+        // При выключенном кеше остается только запоминание в рамках запроса
+        long size = cacheEnabled ? maxSize : 0;
+        this.users = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).build();
+        this.artistIds = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).build();
+        this.residenceIds = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Получение id текущего пользователя из контекста безопасности
+     *
+     * @return ID пользователя
+     * @throws UsernameNotFoundException если пользователь не найден
+     */
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User principal && principal.getId() != null) {
+            return principal.getId();
+        }
+        // Токены без id (выпущенные до добавления claim) - ищем по имени
+        return getCurrentUser().getId();
+    }
+
+    /**
+     * Получение текущего пользователя.
+     * Возвращаемый объект используется только для чтения, изменять его нужно через свежую загрузку из БД.
+     *
+     * @return пользователь
+     * @throws UsernameNotFoundException если пользователь не найден
+     */
+    public User getCurrentUser() {
+        return inRequest(USER_ATTRIBUTE, () -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User principal && principal.getId() != null) {
+                return users.get(principal.getId(), id -> userRepository.findById(id)
+                    .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден")));
+            }
+
+            String username = authentication == null ? null : authentication.getName();
+            User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден"));
+            users.put(user.getId(), user);
+            return user;
+        });
+    }
+
+    /**
+     * Получение id профиля художника текущего пользователя
+     *
+     * @return ID профиля художника, если он создан
+     */
+    public Optional<Long> getCurrentArtistId() {
+        return inRequest(ARTIST_ID_ATTRIBUTE, () -> artistIds.get(getCurrentUserId(), artistProfileRepository::findIdByUserId));
+    }
+
+    /**
+     * Получение id профиля резиденции текущего пользователя
+     *
+     * @return ID профиля резиденции, если он создан
+     */
+    public Optional<Long> getCurrentResidenceId() {
+        return inRequest(RESIDENCE_ID_ATTRIBUTE, () -> residenceIds.get(getCurrentUserId(), residenceDetailsRepository::findIdByUserId));
+    }
+
+    /**
+     * Сброс закешированных данных пользователя: сразу и повторно после завершения
+     * текущей транзакции, чтобы параллельный запрос не вернул в кеш устаревшие значения
+     *
+     * @param userId ID пользователя
+     */
+    public void evict(Long userId) {
+        clearRequest();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(userId);
+                }
+            });
+        }
+        evictNow(userId);
+    }
+
+    private void evictNow(Long userId) {
+        users.invalidate(userId);
+        artistIds.invalidate(userId);
+        residenceIds.invalidate(userId);
+    }
+
+    /**
+     * Запоминание значения в атрибутах текущего HTTP запроса
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T inRequest(String attribute, Supplier<T> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.get();
+        }
+
+        Object cached = attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        T value = loader.get();
+        attributes.setAttribute(attribute, value, RequestAttributes.SCOPE_REQUEST);
+        return value;
+    }
+
+    private void clearRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        for (String attribute : new String[] {USER_ATTRIBUTE, ARTIST_ID_ATTRIBUTE, RESIDENCE_ID_ATTRIBUTE}) {
+            attributes.removeAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.itmo.isLab1.common.errors.UserWithThisUsernameAlreadyExists;
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository repository;
+    private final CurrentUserResolver currentUserResolver;
 
     public User save(User user) {
         return repository.save(user);
@@ -53,14 +54,24 @@ public class UserService {
     }
 
     /**
-     * Вспомогательный метод для получения текущего пользователя из контекста безопасности
+     * Вспомогательный метод для получения текущего пользователя из контекста безопасности.
+     * Пользователь запоминается на время запроса и кратковременно кешируется, поэтому
+     * для изменения его нужно загружать заново по {@link #getCurrentUserId()}.
      *
-     * @return ID пользователя
+     * @return пользователь
      * @throws UsernameNotFoundException если пользователь не найден
      */
     public User getCurrentUser() {
-        var username = getCurrentUsername();
-        return getByUsername(username);
+        return currentUserResolver.getCurrentUser();
+    }
+
+    /**
+     * Получение id текущего пользователя из JWT токена без обращения к БД
+     *
+     * @return ID пользователя
+     */
+    public Long getCurrentUserId() {
+        return currentUserResolver.getCurrentUserId();
     }
 }
 
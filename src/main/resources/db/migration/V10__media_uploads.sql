@@ -0,0 +1,23 @@
+----------------------------------------------------------------------
+-- незавершенные multipart загрузки медиафайлов
+----------------------------------------------------------------------
+
+-- загруженные части хранятся только в MinIO, таблица связывает загрузку
+-- хранилища с работой и фиксирует заявленный размер файла
+CREATE TABLE art2art_media_uploads (
+    id              BIGSERIAL PRIMARY KEY,
+    work_id         BIGINT NOT NULL REFERENCES art2art_portfolio_works(id) ON DELETE CASCADE,
+    upload_id       TEXT NOT NULL,
+    object_name     TEXT NOT NULL UNIQUE,
+    content_type    VARCHAR(255) NOT NULL,
+    file_size       BIGINT NOT NULL,
+    part_size       BIGINT NOT NULL,
+    parts_count     INT NOT NULL,
+    created_at      TIMESTAMP NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_art2art_media_uploads_work_id ON art2art_media_uploads(work_id);
+
+-- очистка брошенных загрузок читает только истекшие строки
+CREATE INDEX idx_art2art_media_uploads_expires_at ON art2art_media_uploads(expires_at);
@@ -0,0 +1,21 @@
+----------------------------------------------------------------------
+-- уменьшенные копии изображений
+----------------------------------------------------------------------
+
+CREATE TYPE art2art_media_derivatives_status_enum AS ENUM (
+    'PENDING',
+    'READY',
+    'FAILED'
+);
+
+-- derivatives: ширина копии в пикселях -> путь объекта в MinIO
+-- статус NULL у видео и у изображений, загруженных до появления копий (заполняются командой backfill)
+ALTER TABLE art2art_media
+    ADD COLUMN derivatives                  JSONB,
+    ADD COLUMN derivatives_status           art2art_media_derivatives_status_enum,
+    ADD COLUMN derivatives_attempts         INT NOT NULL DEFAULT 0,
+    ADD COLUMN derivatives_next_attempt_at  TIMESTAMP;
+
+-- повторная обработка читает только изображения в очереди
+CREATE INDEX idx_art2art_media_derivatives_pending ON art2art_media(derivatives_next_attempt_at)
+    WHERE derivatives_status = 'PENDING';
@@ -0,0 +1,144 @@
+----------------------------------------------------------------------
+-- хранение медиафайлов по хешу содержимого
+----------------------------------------------------------------------
+
+-- один объект в MinIO на одинаковое содержимое, сколько бы раз его ни загрузили
+-- stored: объект загружен в MinIO, до этого запись только резервирует ключ
+-- released_at: время, когда на объект перестали ссылаться; по истечении
+-- задержки объект удаляется очисткой
+CREATE TABLE art2art_media_blobs (
+    hash            CHAR(64) PRIMARY KEY,
+    object_name     TEXT NOT NULL UNIQUE,
+    content_type    VARCHAR(255) NOT NULL,
+    size            BIGINT NOT NULL,
+    ref_count       INT NOT NULL DEFAULT 0,
+    stored          BOOLEAN NOT NULL DEFAULT false,
+    created_at      TIMESTAMP NOT NULL DEFAULT now(),
+    released_at     TIMESTAMP DEFAULT now()
+);
+
+-- очистка читает только объекты без ссылок
+CREATE INDEX idx_art2art_media_blobs_released ON art2art_media_blobs(released_at) WHERE ref_count = 0;
+
+-- медиафайлы, загруженные до появления таблицы или напрямую в хранилище, ссылаются на объект только по uri
+ALTER TABLE art2art_media ADD COLUMN blob_hash CHAR(64) REFERENCES art2art_media_blobs(hash);
+CREATE INDEX idx_art2art_media_blob_hash ON art2art_media(blob_hash);
+
+-- медиафайлы с одинаковым содержимым ссылаются на один объект, поэтому путь уникален
+-- только среди медиафайлов без объекта по хешу; обычный индекс остается для поиска по пути
+DROP INDEX idx_art2art_media_uri;
+CREATE INDEX idx_art2art_media_uri ON art2art_media(uri);
+CREATE UNIQUE INDEX idx_art2art_media_uri_unique ON art2art_media(uri) WHERE blob_hash IS NULL;
+
+
+----------------------------------------------------------------------
+-- резервирование объекта перед загрузкой
+-- существующая запись без ссылок продлевается, чтобы очистка не удалила объект
+-- до сохранения медиафайла; возвращает true, если объект уже загружен
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION register_media_blob(
+    p_hash          CHAR(64),
+    p_object_name   TEXT,
+    p_content_type  VARCHAR(255),
+    p_size          BIGINT
+) RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_stored BOOLEAN;
+BEGIN
+    INSERT INTO art2art_media_blobs (hash, object_name, content_type, size)
+    VALUES (p_hash, p_object_name, p_content_type, p_size)
+    ON CONFLICT (hash) DO UPDATE
+        SET released_at = CASE WHEN art2art_media_blobs.ref_count = 0 THEN now() ELSE NULL END
+    RETURNING stored INTO v_stored;
+
+    RETURN v_stored;
+END;
+$$;
+
+
+----------------------------------------------------------------------
+-- счетчик ссылок поддерживается триггерами, поэтому учитывает и каскадное
+-- удаление медиафайлов вместе с работами и профилями художников
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION apply_media_blob_refs(p_hashes CHAR(64)[], p_deltas INT[]) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    -- строки блокируются в порядке хеша, чтобы параллельные операторы не взаимоблокировались
+    UPDATE art2art_media_blobs b
+    SET ref_count = b.ref_count + d.delta,
+        released_at = CASE WHEN b.ref_count + d.delta = 0 THEN now() ELSE NULL END
+    FROM (
+        SELECT hash, delta
+        FROM unnest(p_hashes, p_deltas) AS t(hash, delta)
+        WHERE delta <> 0
+        ORDER BY hash
+    ) d
+    WHERE b.hash = d.hash;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION media_blob_refs_on_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM apply_media_blob_refs(array_agg(blob_hash), array_agg(delta))
+    FROM (
+        SELECT blob_hash, count(*)::INT AS delta
+        FROM new_rows
+        WHERE blob_hash IS NOT NULL
+        GROUP BY blob_hash
+    ) d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION media_blob_refs_on_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM apply_media_blob_refs(array_agg(blob_hash), array_agg(delta))
+    FROM (
+        SELECT blob_hash, sum(delta)::INT AS delta
+        FROM (
+            SELECT blob_hash, 1 AS delta FROM new_rows WHERE blob_hash IS NOT NULL
+            UNION ALL
+            SELECT blob_hash, -1 AS delta FROM old_rows WHERE blob_hash IS NOT NULL
+        ) changes
+        GROUP BY blob_hash
+    ) d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION media_blob_refs_on_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM apply_media_blob_refs(array_agg(blob_hash), array_agg(delta))
+    FROM (
+        SELECT blob_hash, -count(*)::INT AS delta
+        FROM old_rows
+        WHERE blob_hash IS NOT NULL
+        GROUP BY blob_hash
+    ) d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_media_blob_refs_insert
+AFTER INSERT ON art2art_media
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION media_blob_refs_on_insert();
+
+CREATE TRIGGER trg_media_blob_refs_update
+AFTER UPDATE ON art2art_media
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION media_blob_refs_on_update();
+
+CREATE TRIGGER trg_media_blob_refs_delete
+AFTER DELETE ON art2art_media
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION media_blob_refs_on_delete();
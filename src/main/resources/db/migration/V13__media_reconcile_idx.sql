@@ -0,0 +1,6 @@
+----------------------------------------------------------------------
+-- индексы для сверки хранилища с медиафайлами
+----------------------------------------------------------------------
+
+-- сверка запрашивает все объекты порции работ сразу, этот же индекс нужен списку медиа работы
+CREATE INDEX idx_art2art_media_work_id ON art2art_media(work_id);
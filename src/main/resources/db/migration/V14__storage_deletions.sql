@@ -0,0 +1,70 @@
+----------------------------------------------------------------------
+-- очередь удаления объектов из хранилища
+----------------------------------------------------------------------
+
+-- объекты ставятся в очередь в той же транзакции, что и удаление записей,
+-- поэтому удаление из хранилища не теряется при откате или падении приложения
+-- upload_id: незавершенная multipart загрузка, которую нужно отменить, а не удалить объект
+-- next_attempt_at: обработчик откладывает строку на время повторной попытки при захвате,
+-- успешно обработанные строки удаляются
+CREATE TABLE art2art_storage_deletions (
+    id              BIGSERIAL PRIMARY KEY,
+    object_name     TEXT NOT NULL,
+    upload_id       TEXT,
+    attempts        INT NOT NULL DEFAULT 0,
+    created_at      TIMESTAMP NOT NULL DEFAULT now(),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_art2art_storage_deletions_next_attempt ON art2art_storage_deletions(next_attempt_at);
+
+
+----------------------------------------------------------------------
+-- медиафайлы без общего объекта владеют своим объектом и его копиями;
+-- триггер уровня оператора учитывает и каскадное удаление вместе с работой
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION storage_deletions_on_media_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO art2art_storage_deletions (object_name)
+    SELECT o.uri
+    FROM old_rows o
+    WHERE o.blob_hash IS NULL
+    UNION ALL
+    SELECT d.value
+    FROM old_rows o, jsonb_each_text(o.derivatives) d
+    WHERE o.blob_hash IS NULL;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_storage_deletions_media_delete
+AFTER DELETE ON art2art_media
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION storage_deletions_on_media_delete();
+
+
+----------------------------------------------------------------------
+-- незавершенные загрузки удаленных работ отменяются через очередь;
+-- завершение и очистка истекших загрузок удаляют строку при существующей работе
+-- и сами обращаются к хранилищу
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION storage_deletions_on_upload_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO art2art_storage_deletions (object_name, upload_id)
+    SELECT o.object_name, o.upload_id
+    FROM old_rows o
+    WHERE NOT EXISTS (
+        SELECT 1 FROM art2art_portfolio_works w WHERE w.id = o.work_id
+    );
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_storage_deletions_upload_delete
+AFTER DELETE ON art2art_media_uploads
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION storage_deletions_on_upload_delete();
@@ -0,0 +1,21 @@
+----------------------------------------------------------------------
+-- полнотекстовый поиск по программам и резиденциям
+----------------------------------------------------------------------
+
+-- конфигурация russian стеммирует кириллицу русским словарем, а латиницу английским,
+-- поэтому одного вектора достаточно для текстов на обоих языках
+-- генерируемые столбцы пересчитываются при каждом изменении строки без участия приложения
+ALTER TABLE art2art_programs ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian'::regconfig, coalesce(description, '')), 'B')
+) STORED;
+
+ALTER TABLE art2art_residence_details ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian'::regconfig, coalesce(location, '')), 'B') ||
+    setweight(to_tsvector('russian'::regconfig, coalesce(description, '')), 'C')
+) STORED;
+
+-- поиск выполняется только среди опубликованных записей
+CREATE INDEX idx_art2art_programs_search ON art2art_programs USING GIN (search_vector) WHERE is_published;
+CREATE INDEX idx_art2art_residence_details_search ON art2art_residence_details USING GIN (search_vector) WHERE is_published;
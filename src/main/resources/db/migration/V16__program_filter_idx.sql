@@ -0,0 +1,17 @@
+----------------------------------------------------------------------
+-- индексы фильтрации каталога программ
+----------------------------------------------------------------------
+
+-- фильтр по целям и условиям проверяет вхождение JSON объекта (@>),
+-- jsonb_path_ops поддерживает только этот оператор и дает индекс меньше стандартного
+CREATE INDEX idx_art2art_programs_goals ON art2art_programs USING GIN (goals jsonb_path_ops) WHERE is_published;
+CREATE INDEX idx_art2art_programs_conditions ON art2art_programs USING GIN (conditions jsonb_path_ops) WHERE is_published;
+
+-- диапазоны длительности и квот комбинируются с обязательным условием на дедлайн приема заявок
+CREATE INDEX idx_art2art_programs_duration ON art2art_programs(duration_days, deadline_apply) WHERE is_published;
+CREATE INDEX idx_art2art_programs_budget_quota ON art2art_programs(budget_quota, deadline_apply) WHERE is_published;
+CREATE INDEX idx_art2art_programs_people_quota ON art2art_programs(people_quota, deadline_apply) WHERE is_published;
+
+-- порядок по умолчанию (created_at DESC, id DESC) читается по индексу до достижения лимита,
+-- условие на дедлайн проверяется по включенному столбцу без обращения к таблице
+CREATE INDEX idx_art2art_programs_published_created ON art2art_programs(created_at DESC, id DESC) INCLUDE (deadline_apply) WHERE is_published;
@@ -0,0 +1,81 @@
+----------------------------------------------------------------------
+-- пакетный учет просмотров программ и резиденций
+----------------------------------------------------------------------
+
+-- приложение копит просмотры в памяти и сбрасывает их пачкой,
+-- поэтому одна строка лога теперь может означать несколько просмотров
+ALTER TABLE art2art_program_views_log ADD COLUMN views_count INT NOT NULL DEFAULT 1;
+ALTER TABLE art2art_residence_views_log ADD COLUMN views_count INT NOT NULL DEFAULT 1;
+
+-- построчные триггеры превращали каждый просмотр в UPDATE одной горячей строки статистики,
+-- теперь счетчик увеличивается один раз на пачку
+DROP TRIGGER IF EXISTS trg_program_view ON art2art_program_views_log;
+DROP TRIGGER IF EXISTS trg_residence_view ON art2art_residence_views_log;
+DROP FUNCTION IF EXISTS increment_program_view();
+DROP FUNCTION IF EXISTS increment_residence_view();
+
+
+----------------------------------------------------------------------
+-- пачка просмотров программ: одна строка лога на программу и один UPDATE статистики
+-- p_program_ids и p_counts - параллельные массивы без повторов id
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION log_program_views(p_program_ids BIGINT[], p_counts INT[]) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    -- программы, удаленные до сброса пачки, пропускаем
+    INSERT INTO art2art_program_views_log (program_id, views_count, viewed_at)
+    SELECT v.program_id, v.cnt, now()
+    FROM unnest(p_program_ids, p_counts) AS v(program_id, cnt)
+    JOIN art2art_programs p ON p.id = v.program_id
+    WHERE v.cnt > 0;
+
+    UPDATE art2art_program_stats s
+    SET views_count = s.views_count + v.cnt,
+        updated_at = now()
+    FROM unnest(p_program_ids, p_counts) AS v(program_id, cnt)
+    WHERE s.program_id = v.program_id
+      AND v.cnt > 0;
+END;
+$$;
+
+----------------------------------------------------------------------
+-- пачка просмотров резиденций
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION log_residence_views(p_residence_ids BIGINT[], p_counts INT[]) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO art2art_residence_views_log (residence_id, views_count, viewed_at)
+    SELECT v.residence_id, v.cnt, now()
+    FROM unnest(p_residence_ids, p_counts) AS v(residence_id, cnt)
+    JOIN art2art_residence_details r ON r.id = v.residence_id
+    WHERE v.cnt > 0;
+
+    UPDATE art2art_residence_stats s
+    SET views_count = s.views_count + v.cnt,
+        updated_at = now()
+    FROM unnest(p_residence_ids, p_counts) AS v(residence_id, cnt)
+    WHERE s.residence_id = v.residence_id
+      AND v.cnt > 0;
+END;
+$$;
+
+----------------------------------------------------------------------
+-- одиночные просмотры оставлены для совместимости и сводятся к пачке из одного элемента
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION log_program_view(p_program_id BIGINT) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM log_program_views(ARRAY[p_program_id], ARRAY[1]);
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION log_residence_view(p_residence_id BIGINT) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM log_residence_views(ARRAY[p_residence_id], ARRAY[1]);
+END;
+$$;
@@ -0,0 +1,126 @@
+----------------------------------------------------------------------
+-- агрегаты просмотров по часам и дням
+----------------------------------------------------------------------
+
+-- сырой лог теперь только буфер: периодически переносится в агрегаты и очищается
+CREATE TABLE art2art_program_views_hourly (
+    program_id      BIGINT NOT NULL REFERENCES art2art_programs(id) ON DELETE CASCADE,
+    bucket_start    TIMESTAMP NOT NULL,
+    views_count     BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (program_id, bucket_start)
+);
+
+CREATE TABLE art2art_program_views_daily (
+    program_id      BIGINT NOT NULL REFERENCES art2art_programs(id) ON DELETE CASCADE,
+    bucket_date     DATE NOT NULL,
+    views_count     BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (program_id, bucket_date)
+);
+
+CREATE TABLE art2art_residence_views_hourly (
+    residence_id    BIGINT NOT NULL REFERENCES art2art_residence_details(id) ON DELETE CASCADE,
+    bucket_start    TIMESTAMP NOT NULL,
+    views_count     BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (residence_id, bucket_start)
+);
+
+CREATE TABLE art2art_residence_views_daily (
+    residence_id    BIGINT NOT NULL REFERENCES art2art_residence_details(id) ON DELETE CASCADE,
+    bucket_date     DATE NOT NULL,
+    views_count     BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (residence_id, bucket_date)
+);
+
+-- первичные ключи (id, дата) покрывают выборку временного ряда одним range scan
+-- очистка часовых агрегатов идет по времени без учета id
+CREATE INDEX idx_art2art_program_views_hourly_bucket ON art2art_program_views_hourly(bucket_start);
+CREATE INDEX idx_art2art_residence_views_hourly_bucket ON art2art_residence_views_hourly(bucket_start);
+
+
+----------------------------------------------------------------------
+-- перенос сырого лога просмотров программ в агрегаты
+-- возвращает количество перенесенных просмотров
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION rollup_program_views(p_hourly_retention_days INT) RETURNS BIGINT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_moved BIGINT;
+BEGIN
+    -- строки, вставленные параллельными незавершенными транзакциями, не видны
+    -- и будут перенесены при следующем запуске
+    WITH moved AS (
+        DELETE FROM art2art_program_views_log
+        RETURNING program_id, viewed_at, views_count
+    ),
+    hourly AS (
+        INSERT INTO art2art_program_views_hourly (program_id, bucket_start, views_count)
+        SELECT program_id, date_trunc('hour', viewed_at), sum(views_count)
+        FROM moved
+        WHERE program_id IS NOT NULL
+        GROUP BY 1, 2
+        ON CONFLICT (program_id, bucket_start)
+        DO UPDATE SET views_count = art2art_program_views_hourly.views_count + EXCLUDED.views_count
+    ),
+    daily AS (
+        INSERT INTO art2art_program_views_daily (program_id, bucket_date, views_count)
+        SELECT program_id, viewed_at::date, sum(views_count)
+        FROM moved
+        WHERE program_id IS NOT NULL
+        GROUP BY 1, 2
+        ON CONFLICT (program_id, bucket_date)
+        DO UPDATE SET views_count = art2art_program_views_daily.views_count + EXCLUDED.views_count
+    )
+    SELECT coalesce(sum(views_count), 0) INTO v_moved FROM moved;
+
+    -- часовая детализация нужна только за последние дни, дневные агрегаты храним всегда
+    DELETE FROM art2art_program_views_hourly
+    WHERE bucket_start < now() - make_interval(days => p_hourly_retention_days);
+
+    RETURN v_moved;
+END;
+$$;
+
+----------------------------------------------------------------------
+-- перенос сырого лога просмотров резиденций в агрегаты
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION rollup_residence_views(p_hourly_retention_days INT) RETURNS BIGINT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_moved BIGINT;
+BEGIN
+    WITH moved AS (
+        DELETE FROM art2art_residence_views_log
+        RETURNING residence_id, viewed_at, views_count
+    ),
+    hourly AS (
+        INSERT INTO art2art_residence_views_hourly (residence_id, bucket_start, views_count)
+        SELECT residence_id, date_trunc('hour', viewed_at), sum(views_count)
+        FROM moved
+        WHERE residence_id IS NOT NULL
+        GROUP BY 1, 2
+        ON CONFLICT (residence_id, bucket_start)
+        DO UPDATE SET views_count = art2art_residence_views_hourly.views_count + EXCLUDED.views_count
+    ),
+    daily AS (
+        INSERT INTO art2art_residence_views_daily (residence_id, bucket_date, views_count)
+        SELECT residence_id, viewed_at::date, sum(views_count)
+        FROM moved
+        WHERE residence_id IS NOT NULL
+        GROUP BY 1, 2
+        ON CONFLICT (residence_id, bucket_date)
+        DO UPDATE SET views_count = art2art_residence_views_daily.views_count + EXCLUDED.views_count
+    )
+    SELECT coalesce(sum(views_count), 0) INTO v_moved FROM moved;
+
+    DELETE FROM art2art_residence_views_hourly
+    WHERE bucket_start < now() - make_interval(days => p_hourly_retention_days);
+
+    RETURN v_moved;
+END;
+$$;
+
+-- переносим уже накопленный лог
+SELECT rollup_program_views(90);
+SELECT rollup_residence_views(90);
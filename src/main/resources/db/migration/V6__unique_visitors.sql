@@ -0,0 +1,88 @@
+----------------------------------------------------------------------
+-- приблизительный подсчет уникальных посетителей (HyperLogLog)
+----------------------------------------------------------------------
+
+-- скетч: 2048 однобайтовых регистров, размер не зависит от числа посетителей
+-- в статистике хранится скетч за все время, в дневных агрегатах - за день
+ALTER TABLE art2art_program_stats ADD COLUMN visitors_sketch BYTEA;
+ALTER TABLE art2art_residence_stats ADD COLUMN visitors_sketch BYTEA;
+ALTER TABLE art2art_program_views_daily ADD COLUMN visitors_sketch BYTEA;
+ALTER TABLE art2art_residence_views_daily ADD COLUMN visitors_sketch BYTEA;
+
+
+----------------------------------------------------------------------
+-- объединение двух скетчей: поэлементный максимум регистров
+-- null означает пустой скетч
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION hll_merge(p_left BYTEA, p_right BYTEA) RETURNS BYTEA
+LANGUAGE plpgsql
+IMMUTABLE
+AS $$
+DECLARE
+    v_result BYTEA;
+BEGIN
+    IF p_left IS NULL THEN
+        RETURN p_right;
+    END IF;
+    IF p_right IS NULL THEN
+        RETURN p_left;
+    END IF;
+    IF length(p_left) <> length(p_right) THEN
+        RAISE EXCEPTION 'Скетчи разного размера: % и %', length(p_left), length(p_right);
+    END IF;
+
+    v_result := p_left;
+    FOR i IN 0 .. length(p_right) - 1 LOOP
+        IF get_byte(p_right, i) > get_byte(v_result, i) THEN
+            v_result := set_byte(v_result, i, get_byte(p_right, i));
+        END IF;
+    END LOOP;
+    RETURN v_result;
+END;
+$$;
+
+
+----------------------------------------------------------------------
+-- добавление скетча посетителей программы в дневной агрегат и общую статистику
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION merge_program_visitors(p_program_id BIGINT, p_sketch BYTEA) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    -- программа могла быть удалена до сброса буфера
+    IF NOT EXISTS (SELECT 1 FROM art2art_programs WHERE id = p_program_id) THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO art2art_program_views_daily (program_id, bucket_date, views_count, visitors_sketch)
+    VALUES (p_program_id, current_date, 0, p_sketch)
+    ON CONFLICT (program_id, bucket_date)
+    DO UPDATE SET visitors_sketch = hll_merge(art2art_program_views_daily.visitors_sketch, EXCLUDED.visitors_sketch);
+
+    UPDATE art2art_program_stats
+    SET visitors_sketch = hll_merge(visitors_sketch, p_sketch)
+    WHERE program_id = p_program_id;
+END;
+$$;
+
+----------------------------------------------------------------------
+-- добавление скетча посетителей резиденции
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION merge_residence_visitors(p_residence_id BIGINT, p_sketch BYTEA) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM art2art_residence_details WHERE id = p_residence_id) THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO art2art_residence_views_daily (residence_id, bucket_date, views_count, visitors_sketch)
+    VALUES (p_residence_id, current_date, 0, p_sketch)
+    ON CONFLICT (residence_id, bucket_date)
+    DO UPDATE SET visitors_sketch = hll_merge(art2art_residence_views_daily.visitors_sketch, EXCLUDED.visitors_sketch);
+
+    UPDATE art2art_residence_stats
+    SET visitors_sketch = hll_merge(visitors_sketch, p_sketch)
+    WHERE residence_id = p_residence_id;
+END;
+$$;
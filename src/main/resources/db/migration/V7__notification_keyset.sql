@@ -0,0 +1,16 @@
+----------------------------------------------------------------------
+-- курсорная пагинация уведомлений по (created_at, id)
+----------------------------------------------------------------------
+
+-- приложение передает время с точностью до миллисекунд, поэтому курсор
+-- с микросекундами из БД не совпадал бы с исходной строкой
+ALTER TABLE art2art_notifications ALTER COLUMN created_at TYPE TIMESTAMP(3);
+
+-- строки без даты создания не упорядочиваются в ленте
+UPDATE art2art_notifications SET created_at = now() WHERE created_at IS NULL;
+ALTER TABLE art2art_notifications ALTER COLUMN created_at SET NOT NULL;
+
+-- лента пользователя читается одним range scan в порядке индекса без сортировки,
+-- индекс по одному user_id этим индексом покрывается
+DROP INDEX IF EXISTS idx_art2art_notifications_user_id;
+CREATE INDEX idx_art2art_notifications_user_created ON art2art_notifications(user_id, created_at DESC, id DESC);
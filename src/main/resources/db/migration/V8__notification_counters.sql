@@ -0,0 +1,156 @@
+----------------------------------------------------------------------
+-- счетчик непрочитанных уведомлений пользователя
+----------------------------------------------------------------------
+
+-- счетчик поддерживается триггерами на любое изменение уведомлений,
+-- поэтому create_notification, markAsRead и markAllAsRead обновляют его без изменений в коде
+CREATE TABLE art2art_notification_counters (
+    user_id         BIGINT PRIMARY KEY REFERENCES art2art_users(id) ON DELETE CASCADE,
+    unread_count    INT NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- сверка счетчиков читает только непрочитанные уведомления
+CREATE INDEX idx_art2art_notifications_unread ON art2art_notifications(user_id) WHERE read_at IS NULL;
+
+
+----------------------------------------------------------------------
+-- триггеры уровня оператора: одно изменение счетчика на пользователя за оператор,
+-- markAllAsRead уменьшает счетчик один раз, а не на каждую строку
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION apply_notification_counter_delta(p_user_ids BIGINT[], p_deltas INT[]) RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    -- строки счетчиков блокируются в порядке user_id, чтобы параллельные операторы не взаимоблокировались
+    INSERT INTO art2art_notification_counters (user_id, unread_count, updated_at)
+    SELECT d.user_id, d.delta, now()
+    FROM unnest(p_user_ids, p_deltas) AS d(user_id, delta)
+    WHERE d.delta <> 0
+    ORDER BY d.user_id
+    ON CONFLICT (user_id)
+    DO UPDATE SET unread_count = art2art_notification_counters.unread_count + EXCLUDED.unread_count,
+                  updated_at = now();
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION notification_counter_on_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM apply_notification_counter_delta(array_agg(user_id), array_agg(delta))
+    FROM (
+        SELECT user_id, count(*)::INT AS delta
+        FROM new_rows
+        WHERE read_at IS NULL
+        GROUP BY user_id
+    ) d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notification_counter_on_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM apply_notification_counter_delta(array_agg(user_id), array_agg(delta))
+    FROM (
+        SELECT user_id, sum(delta)::INT AS delta
+        FROM (
+            SELECT user_id, 1 AS delta FROM new_rows WHERE read_at IS NULL
+            UNION ALL
+            SELECT user_id, -1 AS delta FROM old_rows WHERE read_at IS NULL
+        ) changes
+        GROUP BY user_id
+    ) d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notification_counter_on_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM apply_notification_counter_delta(array_agg(user_id), array_agg(delta))
+    FROM (
+        SELECT user_id, -count(*)::INT AS delta
+        FROM old_rows
+        WHERE read_at IS NULL
+        GROUP BY user_id
+    ) d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_notification_counter_insert
+AFTER INSERT ON art2art_notifications
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION notification_counter_on_insert();
+
+CREATE TRIGGER trg_notification_counter_update
+AFTER UPDATE ON art2art_notifications
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION notification_counter_on_update();
+
+CREATE TRIGGER trg_notification_counter_delete
+AFTER DELETE ON art2art_notifications
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION notification_counter_on_delete();
+
+
+----------------------------------------------------------------------
+-- сверка счетчиков с фактическим количеством непрочитанных уведомлений
+-- возвращает количество исправленных счетчиков
+----------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION reconcile_notification_counters() RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_user_id BIGINT;
+    v_fixed INT := 0;
+BEGIN
+    FOR v_user_id IN
+        SELECT coalesce(c.user_id, n.user_id)
+        FROM art2art_notification_counters c
+        FULL JOIN (
+            SELECT user_id, count(*) AS unread_count
+            FROM art2art_notifications
+            WHERE read_at IS NULL
+            GROUP BY user_id
+        ) n ON n.user_id = c.user_id
+        WHERE coalesce(c.unread_count, 0) <> coalesce(n.unread_count, 0)
+    LOOP
+        -- после блокировки строки счетчика параллельные изменения либо уже видны в пересчете,
+        -- либо применят свою дельту к исправленному значению
+        INSERT INTO art2art_notification_counters (user_id, unread_count, updated_at)
+        VALUES (v_user_id, 0, now())
+        ON CONFLICT (user_id) DO NOTHING;
+        PERFORM 1 FROM art2art_notification_counters WHERE user_id = v_user_id FOR UPDATE;
+
+        UPDATE art2art_notification_counters
+        SET unread_count = (
+                SELECT count(*)
+                FROM art2art_notifications
+                WHERE user_id = v_user_id
+                  AND read_at IS NULL
+            ),
+            updated_at = now()
+        WHERE user_id = v_user_id
+          AND unread_count IS DISTINCT FROM (
+                SELECT count(*)
+                FROM art2art_notifications
+                WHERE user_id = v_user_id
+                  AND read_at IS NULL
+            );
+
+        IF FOUND THEN
+            v_fixed := v_fixed + 1;
+        END IF;
+    END LOOP;
+
+    RETURN v_fixed;
+END;
+$$;
+
+-- заполняем счетчики по уже существующим уведомлениям
+SELECT reconcile_notification_counters();
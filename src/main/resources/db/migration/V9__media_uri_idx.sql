@@ -0,0 +1,7 @@
+----------------------------------------------------------------------
+-- уникальность объекта хранилища среди медиафайлов
+----------------------------------------------------------------------
+
+-- прямая загрузка регистрирует объект по его пути: индекс обслуживает проверку повторной регистрации,
+-- а уникальность не дает двум параллельным подтверждениям записать один объект в два медиафайла
+CREATE UNIQUE INDEX idx_art2art_media_uri ON art2art_media(uri);
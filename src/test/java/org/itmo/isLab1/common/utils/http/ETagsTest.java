@@ -0,0 +1,54 @@
+package org.itmo.isLab1.common.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ETagsTest {
+
+    @Test
+    void strongAndWeakFormat() {
+        assertThat(ETags.strong("abc")).isEqualTo("\"abc\"");
+        assertThat(ETags.weak("abc")).isEqualTo("W/\"abc\"");
+    }
+
+    @Test
+    void missingIfNoneMatchNeverMatches() {
+        assertThat(ETags.matches(null, ETags.weak("abc"))).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"W/\"abc\"", "\"abc\"", "*", "\"x\", W/\"abc\"", "\"x\",\"abc\""})
+    void weakComparisonMatches(String ifNoneMatch) {
+        assertThat(ETags.matches(ifNoneMatch, ETags.weak("abc"))).isTrue();
+        assertThat(ETags.matches(ifNoneMatch, ETags.strong("abc"))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "\"abcd\"", "W/\"ab\"", "abc", "\"x\", \"y\""})
+    void otherVersionsDoNotMatch(String ifNoneMatch) {
+        assertThat(ETags.matches(ifNoneMatch, ETags.weak("abc"))).isFalse();
+    }
+
+    @Test
+    void resourceVersionETagDependsOnIdAndUpdateTime() {
+        ZonedDateTime updatedAt = ZonedDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        ResourceVersion version = new ResourceVersion(5L, true, updatedAt);
+
+        assertThat(version.etag())
+            .isEqualTo("W/\"5-" + Long.toHexString(updatedAt.toInstant().toEpochMilli()) + "\"")
+            .isEqualTo(new ResourceVersion(5L, true, updatedAt.withZoneSameInstant(ZoneOffset.ofHours(3))).etag())
+            .isNotEqualTo(new ResourceVersion(6L, true, updatedAt).etag())
+            .isNotEqualTo(new ResourceVersion(5L, true, updatedAt.plusNanos(1_000_000)).etag());
+    }
+
+    @Test
+    void resourceVersionWithoutUpdateTime() {
+        assertThat(new ResourceVersion(5L, true, null).etag()).isEqualTo("W/\"5-0\"");
+    }
+}
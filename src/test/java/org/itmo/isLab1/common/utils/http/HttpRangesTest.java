@@ -0,0 +1,106 @@
+package org.itmo.isLab1.common.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class HttpRangesTest {
+
+    private static final String ETAG = "\"abc\"";
+    private static final long SIZE = 1000;
+
+    @Test
+    void noRangeHeaderMeansWholeContent() {
+        assertThat(HttpRanges.requested(new MockHttpServletRequest(), ETAG)).isNull();
+    }
+
+    @Test
+    void singleRangeIsParsed() {
+        HttpRange range = HttpRanges.requested(request("bytes=100-199", null), ETAG);
+
+        assertThat(range).isNotNull();
+        assertThat(HttpRanges.start(range, SIZE)).isEqualTo(100);
+        assertThat(range.getRangeEnd(SIZE)).isEqualTo(199);
+    }
+
+    @Test
+    void openAndSuffixRangesAreResolvedAgainstSize() {
+        HttpRange open = HttpRanges.requested(request("bytes=900-", null), ETAG);
+        HttpRange suffix = HttpRanges.requested(request("bytes=-100", null), ETAG);
+
+        assertThat(HttpRanges.start(open, SIZE)).isEqualTo(900);
+        assertThat(open.getRangeEnd(SIZE)).isEqualTo(SIZE - 1);
+        assertThat(HttpRanges.start(suffix, SIZE)).isEqualTo(900);
+        assertThat(suffix.getRangeEnd(SIZE)).isEqualTo(SIZE - 1);
+    }
+
+    @Test
+    void rangeEndIsClampedToSize() {
+        HttpRange range = HttpRanges.requested(request("bytes=500-5000", null), ETAG);
+
+        assertThat(range.getRangeEnd(SIZE)).isEqualTo(SIZE - 1);
+    }
+
+    @Test
+    void rangeBeyondContentIsUnsatisfiable() {
+        HttpRange range = HttpRanges.requested(request("bytes=2000-3000", null), ETAG);
+
+        // Контроллеры отвечают 416 по этому исключению
+        assertThatThrownBy(() -> HttpRanges.start(range, SIZE)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void anyRangeOfEmptyContentIsUnsatisfiable() {
+        HttpRange range = HttpRanges.requested(request("bytes=0-", null), ETAG);
+
+        assertThatThrownBy(() -> HttpRanges.start(range, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void startOfSatisfiableRange() {
+        assertThat(HttpRanges.start(HttpRanges.requested(request("bytes=999-", null), ETAG), SIZE)).isEqualTo(999);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=0-99,200-299", "bytes=abc", "items=0-10", "bytes=20-10"})
+    void multipleOrMalformedRangesMeanWholeContent(String header) {
+        assertThat(HttpRanges.requested(request(header, null), ETAG)).isNull();
+    }
+
+    @Test
+    void matchingIfRangeKeepsRange() {
+        assertThat(HttpRanges.requested(request("bytes=0-9", ETAG), ETAG)).isNotNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"other\"", "W/\"abc\"", "Wed, 21 Oct 2015 07:28:00 GMT"})
+    void staleOrWeakIfRangeMeansWholeContent(String ifRange) {
+        assertThat(HttpRanges.requested(request("bytes=0-9", ifRange), ETAG)).isNull();
+    }
+
+    @Test
+    void contentRangeDescribesServedBytes() {
+        assertThat(HttpRanges.contentRange(100, 100, SIZE)).isEqualTo("bytes 100-199/1000");
+        assertThat(HttpRanges.contentRange(0, SIZE, SIZE)).isEqualTo("bytes 0-999/1000");
+    }
+
+    @Test
+    void unsatisfiableReportsOnlySize() {
+        assertThat(HttpRanges.unsatisfiable(SIZE)).isEqualTo("bytes */1000");
+    }
+
+    private static MockHttpServletRequest request(String range, String ifRange) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, range);
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return request;
+    }
+}
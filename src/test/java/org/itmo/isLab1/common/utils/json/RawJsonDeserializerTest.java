@@ -0,0 +1,91 @@
+package org.itmo.isLab1.common.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openapitools.jackson.nullable.JsonNullable;
+import org.openapitools.jackson.nullable.JsonNullableModule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+class RawJsonDeserializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .registerModule(new SimpleModule()
+            .addDeserializer(RawJson.class, new RawJsonDeserializer())
+            .addSerializer(RawJson.class, new RawJsonSerializer()))
+        .registerModule(new JsonNullableModule());
+
+    static class Body {
+        public RawJson goals;
+    }
+
+    static class Patch {
+        public JsonNullable<RawJson> goals = JsonNullable.undefined();
+    }
+
+    @Test
+    void objectIsStoredAsCompactText() throws Exception {
+        Body body = mapper.readValue("{\"goals\": { \"a\" : 1, \"b\" : [true, null, \"x\"] } }", Body.class);
+
+        assertThat(body.goals.value()).isEqualTo("{\"a\":1,\"b\":[true,null,\"x\"]}");
+    }
+
+    @Test
+    void nestedObjectsAndUnicodeArePreserved() throws Exception {
+        Body body = mapper.readValue("{\"goals\": {\"цель\": {\"уровень\": \"высокий\"}}}", Body.class);
+
+        assertThat(mapper.readTree(body.goals.value()))
+            .isEqualTo(mapper.readTree("{\"цель\": {\"уровень\": \"высокий\"}}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"[1, 2]", "\"text\"", "42", "true"})
+    void nonObjectIsRejected(String goals) {
+        assertThatThrownBy(() -> mapper.readValue("{\"goals\": " + goals + "}", Body.class))
+            .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void nullStaysNull() throws Exception {
+        assertThat(mapper.readValue("{\"goals\": null}", Body.class).goals).isNull();
+    }
+
+    @Test
+    void serializerWritesTextWithoutReencoding() throws Exception {
+        Body body = new Body();
+        body.goals = RawJson.of("{\"a\":1,\"b\":{\"c\":\"d\"}}");
+
+        assertThat(mapper.writeValueAsString(body)).isEqualTo("{\"goals\":{\"a\":1,\"b\":{\"c\":\"d\"}}}");
+    }
+
+    @Test
+    void roundTripKeepsContent() throws Exception {
+        String json = "{\"goals\":{\"innovation\":true,\"export\":false}}";
+
+        assertThat(mapper.writeValueAsString(mapper.readValue(json, Body.class))).isEqualTo(json);
+    }
+
+    @Test
+    void partialUpdateDistinguishesMissingNullAndValue() throws Exception {
+        assertThat(mapper.readValue("{}", Patch.class).goals.isPresent()).isFalse();
+
+        JsonNullable<RawJson> cleared = mapper.readValue("{\"goals\": null}", Patch.class).goals;
+        assertThat(cleared.isPresent()).isTrue();
+        assertThat(cleared.get()).isNull();
+
+        JsonNullable<RawJson> updated = mapper.readValue("{\"goals\": {\"a\": 1}}", Patch.class).goals;
+        assertThat(updated.get()).isEqualTo(RawJson.of("{\"a\":1}"));
+    }
+
+    @Test
+    void partialUpdateRejectsNonObject() {
+        assertThatThrownBy(() -> mapper.readValue("{\"goals\": [1]}", Patch.class))
+            .isInstanceOf(MismatchedInputException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package org.itmo.isLab1.common.views;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.estimate()).isZero();
+        assertThat(HyperLogLog.estimate(null)).isZero();
+    }
+
+    @Test
+    void repeatedVisitorIsCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("user:1");
+        }
+
+        assertThat(sketch.isEmpty()).isFalse();
+        assertThat(sketch.estimate()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1_000, 10_000, 100_000})
+    void estimateStaysWithinErrorBound(int visitors) {
+        HyperLogLog sketch = sketchOf(0, visitors);
+
+        // Стандартная ошибка около 2.3%, допуск взят с запасом
+        assertThat((double) sketch.estimate()).isCloseTo(visitors, within(visitors * 0.05 + 1));
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        HyperLogLog left = sketchOf(0, 6_000);
+        HyperLogLog right = sketchOf(4_000, 10_000);
+
+        left.merge(right);
+
+        assertThat(left).isEqualTo(sketchOf(0, 10_000));
+    }
+
+    @Test
+    void mergeIsIdempotent() {
+        HyperLogLog sketch = sketchOf(0, 5_000);
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+
+        sketch.merge(copy);
+
+        assertThat(sketch).isEqualTo(copy);
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = sketchOf(0, 3_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored).isEqualTo(sketch);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(HyperLogLog.estimate(sketch.toBytes())).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void serializedFormIsDetachedFromSketch() {
+        HyperLogLog sketch = new HyperLogLog();
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        bytes[0] = 10;
+
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(restored.isEmpty()).isTrue();
+    }
+
+    @Test
+    void concurrentOffersMatchSequentialSketch() {
+        int threads = 8;
+        int perThread = 20_000;
+        HyperLogLog sketch = new HyperLogLog();
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int from = t * perThread;
+            writers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = from; i < from + perThread; i++) {
+                    sketch.offer("visitor-" + i);
+                }
+            }, runnable -> new Thread(runnable).start()));
+        }
+        writers.forEach(CompletableFuture::join);
+
+        // Регистры соседних индексов делят одно слово, потерянное обновление дало бы другой скетч
+        assertThat(sketch).isEqualTo(sketchOf(0, threads * perThread));
+    }
+
+    @Test
+    void fromBytesTreatsNullAsEmpty() {
+        assertThat(HyperLogLog.fromBytes(null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void fromBytesRejectsWrongSize() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[HyperLogLog.REGISTERS - 1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.offer("visitor-" + i);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,51 @@
+package org.itmo.isLab1.notifications.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.itmo.isLab1.notifications.entity.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NotificationCursorTest {
+
+    @Test
+    void roundTripKeepsMilliseconds() {
+        // created_at хранится как TIMESTAMP(3), миллисекунды - полная точность значения из БД
+        NotificationCursor cursor = new NotificationCursor(LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_000_000), 42L);
+
+        assertThat(NotificationCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursorOfNotificationUsesUtcTime() {
+        Notification notification = Notification.builder()
+            .id(7L)
+            .createdAt(ZonedDateTime.of(2026, 3, 1, 15, 0, 0, 5_000_000, ZoneId.of("Europe/Moscow")))
+            .build();
+
+        NotificationCursor cursor = NotificationCursor.of(notification);
+
+        assertThat(cursor.createdAt()).isEqualTo(LocalDateTime.of(2026, 3, 1, 12, 0, 0, 5_000_000));
+        assertThat(cursor.id()).isEqualTo(7L);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new NotificationCursor(LocalDateTime.of(2026, 3, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not base64!", "MTIz", "OjE=", "YWJjOjE=", "MTIzOmFiYw=="})
+    void malformedCursorIsRejected(String value) {
+        assertThatThrownBy(() -> NotificationCursor.decode(value))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
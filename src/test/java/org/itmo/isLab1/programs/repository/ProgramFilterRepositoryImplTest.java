@@ -0,0 +1,180 @@
+package org.itmo.isLab1.programs.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.itmo.isLab1.programs.dto.ProgramFilterDto;
+import org.itmo.isLab1.programs.repository.ProgramFilterRepository.FacetRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class ProgramFilterRepositoryImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    private final ProgramFilterRepositoryImpl repository = new ProgramFilterRepositoryImpl();
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final Query query = mock(Query.class);
+    private final List<String> sql = new ArrayList<>();
+    private final Map<String, Object> parameters = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+        when(entityManager.createNativeQuery(anyString(), eq(Long.class))).thenAnswer(invocation -> {
+            sql.add(invocation.getArgument(0));
+            return query;
+        });
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+            sql.add(invocation.getArgument(0));
+            return query;
+        });
+        when(query.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        });
+        when(query.getSingleResult()).thenReturn(0L);
+    }
+
+    @Test
+    void emptyFilterKeepsOnlyPublishedOpenPrograms() {
+        repository.findFilteredIds(new ProgramFilterDto(), TODAY, PageRequest.of(2, 20));
+
+        assertThat(sql).containsExactly(
+            "select p.id from art2art_programs p where p.is_published and p.deadline_apply >= :deadlineFrom"
+                + " order by p.created_at desc, p.id desc limit :limit offset :offset"
+        );
+        assertThat(parameters).containsOnly(entry("deadlineFrom", TODAY), entry("limit", 20), entry("offset", 40L));
+    }
+
+    @Test
+    void pastDeadlineFromIsRaisedToToday() {
+        repository.countFiltered(ProgramFilterDto.builder().deadlineFrom(TODAY.minusDays(10)).build(), TODAY);
+
+        assertThat(parameters).containsEntry("deadlineFrom", TODAY);
+    }
+
+    @Test
+    void futureDeadlineWindowIsKept() {
+        ProgramFilterDto filter = ProgramFilterDto.builder()
+            .deadlineFrom(TODAY.plusDays(5))
+            .deadlineTo(TODAY.plusDays(30))
+            .build();
+
+        repository.countFiltered(filter, TODAY);
+
+        assertThat(sql.get(0)).contains("p.deadline_apply <= :deadlineTo");
+        assertThat(parameters)
+            .containsEntry("deadlineFrom", TODAY.plusDays(5))
+            .containsEntry("deadlineTo", TODAY.plusDays(30));
+    }
+
+    @Test
+    void onlyGivenConditionsAreAddedAndBound() {
+        ProgramFilterDto filter = ProgramFilterDto.builder()
+            .goals("{\"format\":\"online\"}")
+            .durationMin(7)
+            .peopleMax(10)
+            .build();
+
+        repository.countFiltered(filter, TODAY);
+
+        assertThat(sql).containsExactly(
+            "select count(*) from art2art_programs p where p.is_published"
+                + " and p.deadline_apply >= :deadlineFrom"
+                + " and p.goals @> cast(:goals as jsonb)"
+                + " and p.duration_days >= :durationMin"
+                + " and p.people_quota <= :peopleMax"
+        );
+        assertThat(parameters).containsOnly(
+            entry("deadlineFrom", TODAY),
+            entry("goals", "{\"format\":\"online\"}"),
+            entry("durationMin", 7),
+            entry("peopleMax", 10)
+        );
+    }
+
+    @Test
+    void allConditionsAreBoundAsParameters() {
+        ProgramFilterDto filter = ProgramFilterDto.builder()
+            .goals("{\"a\":1}")
+            .conditions("{\"b\":true}")
+            .durationMin(1).durationMax(2)
+            .budgetMin(3).budgetMax(4)
+            .peopleMin(5).peopleMax(6)
+            .deadlineTo(TODAY.plusDays(1))
+            .build();
+
+        repository.countFiltered(filter, TODAY);
+
+        assertThat(parameters).containsOnlyKeys(
+            "deadlineFrom", "deadlineTo", "goals", "conditions",
+            "durationMin", "durationMax", "budgetMin", "budgetMax", "peopleMin", "peopleMax"
+        );
+        // Значения фильтра не попадают в текст запроса
+        assertThat(sql.get(0)).doesNotContain("{\"a\":1}", "{\"b\":true}");
+    }
+
+    @Test
+    void requestedSortIsTranslatedToColumnsWithIdTieBreaker() {
+        Sort sort = Sort.by(Sort.Order.asc("deadlineApply"), Sort.Order.desc("title"));
+
+        repository.findFilteredIds(new ProgramFilterDto(), TODAY, PageRequest.of(0, 10, sort));
+
+        assertThat(sql.get(0)).contains(" order by p.deadline_apply asc, p.title desc, p.id desc limit ");
+    }
+
+    @Test
+    void unknownSortPropertyIsRejected() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("description; drop table art2art_programs"));
+
+        assertThatThrownBy(() -> repository.findFilteredIds(new ProgramFilterDto(), TODAY, pageable))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(sql).isEmpty();
+    }
+
+    @Test
+    void countReturnsQueryResult() {
+        when(query.getSingleResult()).thenReturn(17L);
+
+        assertThat(repository.countFiltered(new ProgramFilterDto(), TODAY)).isEqualTo(17);
+    }
+
+    @Test
+    void facetsUseSameFilterAndMapRows() {
+        when(query.getResultList()).thenReturn(List.<Object[]>of(
+            new Object[] {"goals", "format", "\"online\"", 12L},
+            new Object[] {"conditions", "paid", "false", 3}
+        ));
+        ProgramFilterDto filter = ProgramFilterDto.builder().budgetMin(100).build();
+
+        List<FacetRow> facets = repository.findFacets(filter, TODAY, 5);
+
+        assertThat(sql.get(0))
+            .contains("where p.is_published and p.deadline_apply >= :deadlineFrom and p.budget_quota >= :budgetMin\n")
+            .contains("where position <= :facetLimit");
+        assertThat(parameters).containsOnly(entry("deadlineFrom", TODAY), entry("budgetMin", 100), entry("facetLimit", 5));
+        assertThat(facets).containsExactly(
+            new FacetRow("goals", "format", "\"online\"", 12L),
+            new FacetRow("conditions", "paid", "false", 3L)
+        );
+    }
+}